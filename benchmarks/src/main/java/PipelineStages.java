@@ -0,0 +1,164 @@
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import findauthor.benchmarks.Pipeline;
+
+/**
+ * The PipelineStages run each stage of finding an author over one of the
+ * mystery texts for the JMH benchmarks. The text is read into memory and
+ * parsed once when it is loaded, so only findAuthor() reads files, and each
+ * statistic is measured over the same parsed Document.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class PipelineStages implements Pipeline
+{
+    private char[] text;
+    private Document parsed;
+    private FindAuthor finder;
+
+    /**
+     * Reads a text into memory, parses it and prepares a FindAuthor for it.
+     * 
+     * @param file
+     *            The file path of the text
+     * @param statFiles
+     *            The file paths of the author profiles findAuthor() uses
+     * @throws IOException
+     *             if the text cannot be read.
+     */
+    public void load(String file, List<String> statFiles) throws IOException
+    {
+        Reader reader = FindAuthor.openDocument(file);
+        try
+        {
+            text = ParallelAnalyzer.readAll(reader);
+        }
+        finally
+        {
+            reader.close();
+        }
+        parsed = parse(text);
+        finder = new FindAuthor(file, new ArrayList<String>(statFiles));
+    }
+
+    /**
+     * Scans every token of the text with Scanner.nextToken().
+     * 
+     * @return the number of tokens scanned.
+     */
+    public long scanTokens()
+    {
+        Scanner scanner = new Scanner(new CharArrayReader(text));
+        long tokens = 0;
+        while (!scanner.nextToken().getType()
+                .equals(Scanner.TOKEN_TYPE.END_OF_FILE))
+        {
+            tokens++;
+        }
+        return tokens;
+    }
+
+    /**
+     * Parses the text into a Document with Document.parseDocument().
+     * 
+     * @return the number of sentences parsed.
+     */
+    public int parseDocument()
+    {
+        return parse(text).getSentenceCollection().size();
+    }
+
+    /**
+     * Calculates one statistic over the parsed text, with an engine that has
+     * only that statistic registered.
+     * 
+     * @param metric
+     *            The position of the statistic in the standard engine
+     * @return the value of the statistic.
+     */
+    public double statistic(int metric)
+    {
+        StatisticsEngine engine = singleMetric(metric);
+        engine.run(parsed);
+        return engine.getValue(0);
+    }
+
+    /**
+     * Calculates all five statistics in one pass over the text, straight
+     * from the scanner.
+     * 
+     * @return the value of the first statistic.
+     */
+    public double fusedStatistics()
+    {
+        StatisticsEngine engine = StatisticsEngine.standard();
+        engine.run(new Scanner(new CharArrayReader(text)));
+        return engine.getValue(0);
+    }
+
+    /**
+     * Finds the author of the text with FindAuthor.findAuthor(), which reads
+     * the text and the profiles from disk.
+     * 
+     * @return the name of the author.
+     * @throws IOException
+     *             if the text or a profile cannot be read.
+     */
+    public String findAuthor() throws IOException
+    {
+        return finder.findAuthor();
+    }
+
+    /**
+     * Parses a text into a Document.
+     * 
+     * @param text
+     *            The characters of the text
+     * @return the parsed document.
+     */
+    private static Document parse(char[] text)
+    {
+        Document d = new Document(new Scanner(new CharArrayReader(text)));
+        d.parseDocument();
+        return d;
+    }
+
+    /**
+     * Creates an engine with only one of the standard statistics registered.
+     * 
+     * @param metric
+     *            The position of the statistic in the standard engine
+     * @return a new engine with the statistic at position 0.
+     */
+    private static StatisticsEngine singleMetric(int metric)
+    {
+        StatisticsEngine engine = new StatisticsEngine();
+        switch (metric)
+        {
+        case StatisticsEngine.AVERAGE_WORD_LENGTH:
+            engine.register(new AverageWordLengthAccumulator());
+            break;
+        case StatisticsEngine.TYPE_TOKEN_RATIO:
+            engine.register(new TypeTokenRatioAccumulator(engine
+                    .getVocabulary()));
+            break;
+        case StatisticsEngine.HAPAX_LEGOMANA:
+            engine.register(new HapaxLegomanaAccumulator(engine
+                    .getVocabulary()));
+            break;
+        case StatisticsEngine.AVERAGE_WORDS_PER_SENTENCE:
+            engine.register(new AverageWordsPerSentenceAccumulator());
+            break;
+        default:
+            engine.register(new SentenceComplexityAccumulator());
+        }
+        return engine;
+    }
+}
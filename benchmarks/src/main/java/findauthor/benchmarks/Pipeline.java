@@ -0,0 +1,74 @@
+package findauthor.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A Pipeline runs each stage of finding an author over one text that is
+ * already in memory. JMH does not accept benchmarks outside a package, and a
+ * class in a package cannot name the classes of the project, which have
+ * none. The benchmarks therefore call the project through this interface,
+ * and the implementation, PipelineStages, sits next to the project classes
+ * and is found with a ServiceLoader.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public interface Pipeline
+{
+    /**
+     * Reads a text into memory and prepares every stage to run over it.
+     * 
+     * @param file
+     *            The file path of the text
+     * @param statFiles
+     *            The file paths of the author profiles findAuthor() uses
+     * @throws IOException
+     *             if the text cannot be read.
+     */
+    void load(String file, List<String> statFiles) throws IOException;
+
+    /**
+     * Scans every token of the text with Scanner.nextToken().
+     * 
+     * @return the number of tokens scanned.
+     */
+    long scanTokens();
+
+    /**
+     * Parses the text into a Document with Document.parseDocument().
+     * 
+     * @return the number of sentences parsed.
+     */
+    int parseDocument();
+
+    /**
+     * Calculates one statistic over the parsed text, with an engine that has
+     * only that statistic registered.
+     * 
+     * @param metric
+     *            The position of the statistic in the standard engine
+     * @return the value of the statistic.
+     */
+    double statistic(int metric);
+
+    /**
+     * Calculates all five statistics in one pass over the text, straight
+     * from the scanner.
+     * 
+     * @return the value of the first statistic.
+     */
+    double fusedStatistics();
+
+    /**
+     * Finds the author of the text with FindAuthor.findAuthor(), which reads
+     * the text and the profiles from disk.
+     * 
+     * @return the name of the author.
+     * @throws IOException
+     *             if the text or a profile cannot be read.
+     */
+    String findAuthor() throws IOException;
+}
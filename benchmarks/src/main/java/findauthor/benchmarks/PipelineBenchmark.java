@@ -0,0 +1,256 @@
+package findauthor.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The PipelineBenchmark measures each stage of finding an author with JMH:
+ * Scanner.nextToken(), Document.parseDocument(), each statistic on its own,
+ * the five statistics in one pass, and FindAuthor.findAuthor() from file to
+ * answer. Every benchmark runs over each of the mystery texts, which are the
+ * values of the file parameter.
+ * 
+ * Each benchmark is run in several forks, so the results come with a
+ * confidence interval across JVMs, and main() always adds the gc profiler,
+ * so every result also has the bytes allocated per operation.
+ * 
+ * Usage: java -jar target/benchmarks.jar [JMH options]
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class PipelineBenchmark
+{
+    /**
+     * The system property naming the directory the mystery texts and
+     * profiles are read from. It defaults to the src directory of the
+     * project, found from either the project or this module.
+     */
+    public static final String SOURCE_PROPERTY = "findauthor.src";
+
+    // the positions of the statistics in the standard engine
+    private static final int AVERAGE_WORD_LENGTH = 0;
+    private static final int TYPE_TOKEN_RATIO = 1;
+    private static final int HAPAX_LEGOMANA = 2;
+    private static final int AVERAGE_WORDS_PER_SENTENCE = 3;
+    private static final int SENTENCE_COMPLEXITY = 4;
+
+    /**
+     * The mystery text every benchmark runs over.
+     */
+    @Param({ "mystery1.txt", "mystery2.txt", "mystery3.txt", "mystery4.txt",
+            "mystery5.txt" })
+    public String file;
+
+    private Pipeline pipeline;
+
+    /**
+     * Loads the text of the file parameter before its benchmarks are run.
+     * 
+     * @throws IOException
+     *             if the text cannot be read.
+     */
+    @Setup(Level.Trial)
+    public void load() throws IOException
+    {
+        File source = sourceDirectory();
+        List<String> statFiles = new ArrayList<String>();
+        String[] names = source.list();
+        Arrays.sort(names);
+        for (String name : names)
+        {
+            if (name.endsWith(".stats"))
+            {
+                statFiles.add(new File(source, name).getPath());
+            }
+        }
+        Iterator<Pipeline> pipelines = ServiceLoader.load(Pipeline.class)
+                .iterator();
+        if (!pipelines.hasNext())
+        {
+            throw new IllegalStateException("no Pipeline is registered");
+        }
+        pipeline = pipelines.next();
+        pipeline.load(new File(source, file).getPath(), statFiles);
+    }
+
+    /**
+     * Finds the directory the mystery texts and profiles are read from.
+     * 
+     * @return the directory.
+     * @throws IOException
+     *             if no directory holding the texts is found.
+     */
+    private static File sourceDirectory() throws IOException
+    {
+        String property = System.getProperty(SOURCE_PROPERTY);
+        if (property != null)
+        {
+            return new File(property);
+        }
+        for (String candidate : new String[] { "../src", "src" })
+        {
+            File dir = new File(candidate);
+            if (new File(dir, "mystery1.txt").isFile())
+            {
+                return dir;
+            }
+        }
+        throw new IOException("set -D" + SOURCE_PROPERTY
+                + " to the directory of the mystery texts");
+    }
+
+    /**
+     * Measures Scanner.nextToken() over the whole text.
+     * 
+     * @return the number of tokens.
+     */
+    @Benchmark
+    public long scannerNextToken()
+    {
+        return pipeline.scanTokens();
+    }
+
+    /**
+     * Measures Document.parseDocument() over the whole text.
+     * 
+     * @return the number of sentences.
+     */
+    @Benchmark
+    public int documentParseDocument()
+    {
+        return pipeline.parseDocument();
+    }
+
+    /**
+     * Measures the average word length over the parsed text.
+     * 
+     * @return the value of the statistic.
+     */
+    @Benchmark
+    public double averageWordLength()
+    {
+        return pipeline.statistic(AVERAGE_WORD_LENGTH);
+    }
+
+    /**
+     * Measures the type-token ratio over the parsed text.
+     * 
+     * @return the value of the statistic.
+     */
+    @Benchmark
+    public double typeTokenRatio()
+    {
+        return pipeline.statistic(TYPE_TOKEN_RATIO);
+    }
+
+    /**
+     * Measures the hapax legomana ratio over the parsed text.
+     * 
+     * @return the value of the statistic.
+     */
+    @Benchmark
+    public double hapaxLegomana()
+    {
+        return pipeline.statistic(HAPAX_LEGOMANA);
+    }
+
+    /**
+     * Measures the average number of words per sentence over the parsed
+     * text.
+     * 
+     * @return the value of the statistic.
+     */
+    @Benchmark
+    public double averageWordsPerSentence()
+    {
+        return pipeline.statistic(AVERAGE_WORDS_PER_SENTENCE);
+    }
+
+    /**
+     * Measures the sentence complexity over the parsed text.
+     * 
+     * @return the value of the statistic.
+     */
+    @Benchmark
+    public double sentenceComplexity()
+    {
+        return pipeline.statistic(SENTENCE_COMPLEXITY);
+    }
+
+    /**
+     * Measures all five statistics in one pass straight from the scanner.
+     * 
+     * @return the value of the first statistic.
+     */
+    @Benchmark
+    public double fusedStatistics()
+    {
+        return pipeline.fusedStatistics();
+    }
+
+    /**
+     * Measures FindAuthor.findAuthor() from file to answer.
+     * 
+     * @return the name of the author.
+     * @throws IOException
+     *             if the text or a profile cannot be read.
+     */
+    @Benchmark
+    public String findAuthor() throws IOException
+    {
+        return pipeline.findAuthor();
+    }
+
+    /**
+     * Runs the benchmarks with the gc profiler added to any JMH options
+     * given.
+     * 
+     * @param args
+     *            JMH command line options
+     * @throws CommandLineOptionException
+     *             if the options cannot be parsed.
+     * @throws RunnerException
+     *             if a benchmark fails.
+     */
+    public static void main(String[] args) throws CommandLineOptionException,
+            RunnerException
+    {
+        CommandLineOptions options = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(options)
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
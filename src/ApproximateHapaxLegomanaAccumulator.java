@@ -0,0 +1,81 @@
+/**
+ * Accumulates an estimate of the hapax legomana ratio of a document in a
+ * fixed amount of memory. The number of words seen exactly once is estimated
+ * from a HapaxSampler, which keeps exact counts for a hash-chosen sample of
+ * at most sampleSize different words. The number of words is counted
+ * exactly. See HapaxSampler for the error of the estimate; the answer is
+ * exact while the document has no more than sampleSize different words.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ApproximateHapaxLegomanaAccumulator implements
+        StatisticAccumulator
+{
+    private HapaxSampler sample;
+    private long totalWords;
+
+    /**
+     * Constructor for the ApproximateHapaxLegomanaAccumulator class.
+     * 
+     * @param sampleSize
+     *            The largest number of different words kept in the sample
+     */
+    public ApproximateHapaxLegomanaAccumulator(int sampleSize)
+    {
+        sample = new HapaxSampler(sampleSize);
+    }
+
+    /**
+     * Counts the word and adds it to the sample.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    public void addWord(String word)
+    {
+        totalWords++;
+        sample.add(word);
+    }
+
+    /**
+     * Phrases do not affect the hapax legomana ratio.
+     */
+    public void endPhrase()
+    {
+    }
+
+    /**
+     * Sentences do not affect the hapax legomana ratio.
+     */
+    public void endSentence()
+    {
+    }
+
+    /**
+     * Adds the sample of the other accumulator to this one.
+     * 
+     * @param other
+     *            an ApproximateHapaxLegomanaAccumulator
+     */
+    public void merge(StatisticAccumulator other)
+    {
+        ApproximateHapaxLegomanaAccumulator o =
+                (ApproximateHapaxLegomanaAccumulator) other;
+        totalWords += o.totalWords;
+        sample.merge(o.sample);
+    }
+
+    /**
+     * Returns the estimated hapax legomana ratio.
+     * 
+     * @return the estimated number of words that appeared once divided by the
+     *         number of words.
+     */
+    public double getValue()
+    {
+        return sample.estimateHapax() / (double) totalWords;
+    }
+}
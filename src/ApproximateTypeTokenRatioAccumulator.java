@@ -0,0 +1,83 @@
+/**
+ * Accumulates an estimate of the type-token ratio of a document in a fixed
+ * amount of memory. The number of different words is estimated with a
+ * HyperLogLog instead of being counted in a Vocabulary, so the memory used
+ * does not grow with the vocabulary of the document. The number of words is
+ * counted exactly, so the relative error of the ratio is the relative error
+ * of the HyperLogLog, about 1.04 / sqrt(2^precision).
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ApproximateTypeTokenRatioAccumulator implements
+        StatisticAccumulator
+{
+    private HyperLogLog types;
+    private long totalWords;
+
+    /**
+     * Constructor for the ApproximateTypeTokenRatioAccumulator class.
+     * 
+     * @param precision
+     *            The precision of the HyperLogLog, which uses 2^precision
+     *            bytes
+     */
+    public ApproximateTypeTokenRatioAccumulator(int precision)
+    {
+        types = new HyperLogLog(precision);
+    }
+
+    /**
+     * Counts the word and adds it to the HyperLogLog.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    public void addWord(String word)
+    {
+        totalWords++;
+        types.add(word);
+    }
+
+    /**
+     * Phrases do not affect the type-token ratio.
+     */
+    public void endPhrase()
+    {
+    }
+
+    /**
+     * Sentences do not affect the type-token ratio.
+     */
+    public void endSentence()
+    {
+    }
+
+    /**
+     * Adds the words of the other accumulator to this one.
+     * 
+     * @param other
+     *            an ApproximateTypeTokenRatioAccumulator with the same
+     *            precision
+     */
+    public void merge(StatisticAccumulator other)
+    {
+        ApproximateTypeTokenRatioAccumulator o =
+                (ApproximateTypeTokenRatioAccumulator) other;
+        totalWords += o.totalWords;
+        types.merge(o.types);
+    }
+
+    /**
+     * Returns the estimated type-token ratio.
+     * 
+     * @return the estimated number of different words divided by the number
+     *         of words.
+     */
+    public double getValue()
+    {
+        return types.estimate() / (double) totalWords;
+    }
+}
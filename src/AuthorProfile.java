@@ -0,0 +1,220 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An AuthorProfile holds the name of an author and the statistics of their
+ * writing, as read from a .stats file. A .stats file has the name of the
+ * author on its first line, followed by one line for each statistic in the
+ * order of the StatisticsEngine constants. A profile is immutable, so one set
+ * of loaded profiles can be shared by any number of classifications.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public final class AuthorProfile
+{
+    /**
+     * The number of statistics stored in a .stats file.
+     */
+    public static final int STATISTIC_COUNT = 5;
+
+    private String name;
+    private double[] statistics;
+
+    /**
+     * Constructor for the AuthorProfile class.
+     * 
+     * @param name
+     *            The name of the author
+     * @param statistics
+     *            The statistics of the author, which are copied
+     */
+    public AuthorProfile(String name, double[] statistics)
+    {
+        this.name = name;
+        this.statistics = statistics.clone();
+    }
+
+    /**
+     * Reads a profile from a .stats file. The file is closed afterwards.
+     * 
+     * @param statFile
+     *            The file path of the stat file
+     * @return the profile in the file.
+     * @throws IOException
+     *             if the file is not found, or is missing a statistic or has
+     *             one that is not a number.
+     */
+    public static AuthorProfile load(String statFile) throws IOException
+    {
+        long start = PipelineMetrics.start();
+        // read as UTF-8, the encoding save() writes, whatever the platform
+        BufferedReader br = new BufferedReader(new InputStreamReader(
+                new FileInputStream(statFile), StandardCharsets.UTF_8));
+        try
+        {
+            String name = br.readLine();
+            double[] statistics = new double[STATISTIC_COUNT];
+            for (int i = 0; i < STATISTIC_COUNT; i++)
+            {
+                String stat = br.readLine();
+                if (stat == null)
+                {
+                    throw new IOException(statFile + " is missing statistic "
+                            + i);
+                }
+                try
+                {
+                    statistics[i] = Double.parseDouble(stat);
+                }
+                catch (NumberFormatException e)
+                {
+                    throw new IOException(statFile + " has a bad statistic: "
+                            + stat, e);
+                }
+            }
+            PipelineMetrics.stop(PipelineMetrics.Stage.PROFILE_LOAD, start, 0,
+                    1);
+            return new AuthorProfile(name, statistics);
+        }
+        finally
+        {
+            br.close();
+        }
+    }
+
+    /**
+     * Reads the profiles of several .stats files.
+     * 
+     * @param statFiles
+     *            The file paths of the stat files
+     * @return an ArrayList of the profiles, in the same order as the files.
+     * @throws IOException
+     *             if a file is not found.
+     */
+    public static ArrayList<AuthorProfile> loadAll(List<String> statFiles)
+            throws IOException
+    {
+        ArrayList<AuthorProfile> answer = new ArrayList<AuthorProfile>();
+        for (String statFile : statFiles)
+        {
+            answer.add(load(statFile));
+        }
+        return answer;
+    }
+
+    /**
+     * Writes this profile as a .stats file, the name of the author followed
+     * by one statistic per line.
+     * 
+     * @param statFile
+     *            The file to be written
+     * @throws IOException
+     *             if the file cannot be written.
+     */
+    public void save(File statFile) throws IOException
+    {
+        PrintWriter out = new PrintWriter(statFile, "UTF-8");
+        try
+        {
+            out.println(name);
+            for (double stat : statistics)
+            {
+                out.println(stat);
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * returns the name of the author.
+     * 
+     * @return the name on the first line of the stat file.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * returns one of the statistics of the author.
+     * 
+     * @param index
+     *            The position of the statistic
+     * @return the value of the statistic.
+     */
+    public double getStatistic(int index)
+    {
+        return statistics[index];
+    }
+
+    /**
+     * Calculates the weighted distance between the statistics of a document
+     * and this profile, the sum of the weighted absolute differences of each
+     * statistic.
+     * 
+     * @param docStats
+     *            The statistics of the document
+     * @param weights
+     *            The weight of each statistic
+     * @return the weighted distance to the document.
+     */
+    public double distanceTo(double[] docStats, double[] weights)
+    {
+        double total = 0;
+        for (int k = 0; k < statistics.length; k++)
+        {
+            total += (Math.abs(docStats[k] - statistics[k])) * weights[k];
+        }
+        return total;
+    }
+
+    /**
+     * Calculates the weighted distance to the statistics of a document, but
+     * stops adding once the sum is larger than a bound. With weights of at
+     * least 0 the sum only grows, so a profile that passes the bound cannot
+     * be closer than it, and the rest of its terms need not be added. Below
+     * the bound the result is exactly distanceTo(docStats, weights).
+     * 
+     * @param docStats
+     *            The statistics of the document
+     * @param weights
+     *            The weight of each statistic, each at least 0
+     * @param bound
+     *            The distance above which the sum is not needed
+     * @return the distance, or a partial sum larger than the bound.
+     */
+    public double distanceTo(double[] docStats, double[] weights, double bound)
+    {
+        double total = 0;
+        for (int k = 0; k < statistics.length; k++)
+        {
+            total += (Math.abs(docStats[k] - statistics[k])) * weights[k];
+            if (total > bound)
+            {
+                return total;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Overrides java.lang.Object.toString to print the name of the author.
+     */
+    public String toString()
+    {
+        return name;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Accumulates the average word length of a document, the total length of all
+ * words divided by the number of words.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class AverageWordLengthAccumulator implements StatisticAccumulator
+{
+    private long totalWords;
+    private long totalWordLength;
+
+    /**
+     * Adds the word and its length to the totals.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    public void addWord(String word)
+    {
+        totalWords++;
+        totalWordLength += word.length();
+    }
+
+    /**
+     * Phrases do not affect the word length.
+     */
+    public void endPhrase()
+    {
+    }
+
+    /**
+     * Sentences do not affect the word length.
+     */
+    public void endSentence()
+    {
+    }
+
+    /**
+     * Adds the word totals of the other accumulator to this one.
+     * 
+     * @param other
+     *            an AverageWordLengthAccumulator
+     */
+    public void merge(StatisticAccumulator other)
+    {
+        AverageWordLengthAccumulator o = (AverageWordLengthAccumulator) other;
+        totalWords += o.totalWords;
+        totalWordLength += o.totalWordLength;
+    }
+
+    /**
+     * Returns the average word length.
+     * 
+     * @return the total word length divided by the number of words.
+     */
+    public double getValue()
+    {
+        return (double) totalWordLength / totalWords;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Accumulates the average number of words per sentence of a document.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class AverageWordsPerSentenceAccumulator implements StatisticAccumulator
+{
+    private long totalWords;
+    private long totalSentences;
+
+    /**
+     * Counts the word.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    public void addWord(String word)
+    {
+        totalWords++;
+    }
+
+    /**
+     * Phrases do not affect the words per sentence.
+     */
+    public void endPhrase()
+    {
+    }
+
+    /**
+     * Counts the sentence.
+     */
+    public void endSentence()
+    {
+        totalSentences++;
+    }
+
+    /**
+     * Adds the word and sentence totals of the other accumulator to this one.
+     * 
+     * @param other
+     *            an AverageWordsPerSentenceAccumulator
+     */
+    public void merge(StatisticAccumulator other)
+    {
+        AverageWordsPerSentenceAccumulator o =
+                (AverageWordsPerSentenceAccumulator) other;
+        totalWords += o.totalWords;
+        totalSentences += o.totalSentences;
+    }
+
+    /**
+     * Returns the average number of words per sentence.
+     * 
+     * @return the number of words divided by the number of sentences.
+     */
+    public double getValue()
+    {
+        return (double) totalWords / (double) totalSentences;
+    }
+}
@@ -0,0 +1,267 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The BatchClassifier finds the authors of many documents against one set of
+ * author profiles. The profiles are loaded once, when the classifier is
+ * created, instead of once per document, or they are read from a
+ * ProfileRegistry that keeps them up to date. The documents of a batch are
+ * analyzed concurrently on an executor chosen by the caller, and the results
+ * are returned in the order of the documents.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class BatchClassifier
+{
+    private List<AuthorProfile> profiles;
+    /**
+     * The registry the profiles are read from, or null if the profiles are
+     * fixed.
+     */
+    private ProfileRegistry registry;
+    private double[] weights;
+    private ExecutorService executor;
+    /**
+     * The cache of earlier results, or null if every document is analyzed.
+     */
+    private ResultCache cache;
+    /**
+     * The fingerprint of the profiles the cache was last used with, so that
+     * it is computed once per set of profiles instead of once per document.
+     */
+    private volatile ProfileVersion profileVersion;
+
+    /**
+     * A set of profiles and its ResultCache fingerprint. The fixed profiles
+     * and the profiles of each registry snapshot are never changed, so the
+     * same List always has the same fingerprint.
+     */
+    private static final class ProfileVersion
+    {
+        private List<AuthorProfile> profiles;
+        private long version;
+
+        /**
+         * Constructor for the ProfileVersion class.
+         * 
+         * @param profiles
+         *            The profiles, which must not be changed afterwards
+         * @param version
+         *            The fingerprint of the profiles and weights
+         */
+        private ProfileVersion(List<AuthorProfile> profiles, long version)
+        {
+            this.profiles = profiles;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Constructor for the BatchClassifier class.
+     * 
+     * @param profiles
+     *            The author profiles the documents are compared to
+     * @param weights
+     *            The weight of each statistic
+     * @param executor
+     *            The executor the documents are analyzed on. It is not shut
+     *            down by this class.
+     */
+    public BatchClassifier(List<AuthorProfile> profiles, double[] weights,
+            ExecutorService executor)
+    {
+        this.profiles = new ArrayList<AuthorProfile>(profiles);
+        this.weights = weights.clone();
+        this.executor = executor;
+    }
+
+    /**
+     * Constructor for a BatchClassifier that reads its profiles from a
+     * registry. Each batch uses the snapshot that is current when the batch
+     * starts.
+     * 
+     * @param registry
+     *            The registry holding the author profiles
+     * @param weights
+     *            The weight of each statistic
+     * @param executor
+     *            The executor the documents are analyzed on. It is not shut
+     *            down by this class.
+     */
+    public BatchClassifier(ProfileRegistry registry, double[] weights,
+            ExecutorService executor)
+    {
+        this.registry = registry;
+        this.weights = weights.clone();
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the cache that results are looked up in and added to, so that
+     * documents classified before are not analyzed again.
+     * 
+     * @param cache
+     *            The cache to use, or null to analyze every document
+     */
+    public void setCache(ResultCache cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the profiles to compare documents to.
+     * 
+     * @return the fixed profiles, or the current profiles of the registry.
+     */
+    private List<AuthorProfile> getProfiles()
+    {
+        if (registry != null)
+        {
+            return registry.getProfiles();
+        }
+        return profiles;
+    }
+
+    /**
+     * Finds the author of a single document on the calling thread.
+     * 
+     * @param docFile
+     *            The file path of the document
+     * @return the name of the closest author.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public String classify(String docFile) throws IOException
+    {
+        return classify(docFile, getProfiles());
+    }
+
+    /**
+     * Finds the author of a single document against the given profiles.
+     * 
+     * @param docFile
+     *            The file path of the document
+     * @param profileSet
+     *            The profiles to compare the document to
+     * @return the name of the closest author.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    private String classify(String docFile, List<AuthorProfile> profileSet)
+            throws IOException
+    {
+        if (cache != null)
+        {
+            return cache.classify(docFile, profileSet, weights,
+                    versionOf(profileSet)).getName();
+        }
+        double[] docStats = FindAuthor.getStatistics(docFile);
+        return FindAuthor.findClosest(docStats, profileSet, weights)
+                .getName();
+    }
+
+    /**
+     * Returns the ResultCache fingerprint of a set of profiles with the
+     * weights of this classifier, computing it only when the set is not the
+     * one it was last computed for.
+     * 
+     * @param profileSet
+     *            The fixed profiles, or the profiles of a registry snapshot
+     * @return the fingerprint of the profiles and weights.
+     */
+    private long versionOf(List<AuthorProfile> profileSet)
+    {
+        ProfileVersion v = profileVersion;
+        if (v == null || v.profiles != profileSet)
+        {
+            // two threads may both compute it, which is harmless
+            v = new ProfileVersion(profileSet, ResultCache.fingerprint(
+                    profileSet, weights));
+            profileVersion = v;
+        }
+        return v.version;
+    }
+
+    /**
+     * Finds the authors of a list of documents concurrently.
+     * 
+     * @param docFiles
+     *            The file paths of the documents
+     * @return a List of the names of the closest authors, in the same order
+     *         as the documents.
+     * @throws IOException
+     *             if a file is not found, or the calling thread is
+     *             interrupted while waiting.
+     */
+    public List<String> classifyAll(List<String> docFiles) throws IOException
+    {
+        final List<AuthorProfile> profileSet = getProfiles();
+        List<Future<String>> futures = new ArrayList<Future<String>>();
+        for (final String docFile : docFiles)
+        {
+            futures.add(executor.submit(new Callable<String>()
+            {
+                public String call() throws IOException
+                {
+                    return classify(docFile, profileSet);
+                }
+            }));
+        }
+        List<String> answer = new ArrayList<String>();
+        try
+        {
+            for (Future<String> f : futures)
+            {
+                answer.add(f.get());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while classifying");
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        finally
+        {
+            for (Future<String> f : futures)
+            {
+                f.cancel(true);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Finds the authors of a stream of documents concurrently.
+     * 
+     * @param docFiles
+     *            The file paths of the documents
+     * @return a List of the names of the closest authors, in the same order
+     *         as the documents.
+     * @throws IOException
+     *             if a file is not found, or the calling thread is
+     *             interrupted while waiting.
+     */
+    public List<String> classifyAll(Stream<String> docFiles) throws IOException
+    {
+        return classifyAll(docFiles.collect(Collectors.toList()));
+    }
+}
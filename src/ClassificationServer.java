@@ -0,0 +1,652 @@
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The ClassificationServer is a long running HTTP service that finds the
+ * authors of documents, so that a classification does not pay for starting
+ * the JVM and loading the profiles. The profiles are kept in memory by a
+ * ProfileRegistry, which also picks up changed .stats files.
+ * 
+ * A document is sent to /classify either as the body of a POST, or as a path
+ * with the file parameter, as in /classify?file=src/mystery1.txt. The answer
+ * is every author ranked from closest to furthest, one per line, with the
+ * name, the distance and the margin to the next author separated by tabs.
+ * 
+ * Requests wait in a bounded queue. A single batching thread takes every
+ * request that is waiting, up to a maximum, as one batch. The batch is
+ * compared against one snapshot of the profiles and split into at most one
+ * task per analysis thread. The analysis threads are a fixed, bounded pool.
+ * When the queue is full, new requests are refused with 503 instead of
+ * waiting, which keeps the latency of accepted requests bounded. The HTTP
+ * threads do not wait for the analysis: they queue the request and return,
+ * and the response is sent by the thread that completes the ranking. The
+ * queue is therefore the only place a request waits.
+ * 
+ * Usage: java ClassificationServer profileDirectory [port] [analysis threads]
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ClassificationServer
+{
+    public static final int DEFAULT_PORT = 8080;
+    /**
+     * The number of threads that accept connections. They only read the
+     * request and queue it, so a few of them are enough.
+     */
+    private static final int HTTP_THREADS = 8;
+    /**
+     * The number of requests that can wait for analysis before new requests
+     * are refused. A waiting POST holds the whole text of its document, so
+     * this also bounds the memory the queue takes.
+     */
+    private static final int QUEUE_CAPACITY = 256;
+
+    /**
+     * A document waiting to be classified, and the ranking it will receive.
+     */
+    private static final class Request
+    {
+        /**
+         * The path of the document, or null if its text was sent.
+         */
+        private String file;
+        /**
+         * The text of the document, or null if a path was sent.
+         */
+        private char[] text;
+        private CompletableFuture<String> ranking;
+
+        /**
+         * Constructor for the Request class.
+         * 
+         * @param file
+         *            The path of the document, or null
+         * @param text
+         *            The text of the document, or null
+         */
+        private Request(String file, char[] text)
+        {
+            this.file = file;
+            this.text = text;
+            ranking = new CompletableFuture<String>();
+        }
+    }
+
+    private ProfileRegistry registry;
+    private double[] weights;
+    private int analysisThreads;
+    private int maxBatch;
+    private BlockingQueue<Request> queue;
+    /**
+     * Limits the batch tasks that are queued or running on the analysis
+     * pool, so that the batching thread waits instead of piling up tasks.
+     */
+    private Semaphore analysisSlots;
+    private ExecutorService analysisPool;
+    private ExecutorService httpPool;
+    private HttpServer server;
+    private Thread batcher;
+    /**
+     * Set when the server starts stopping, so that a request queued after
+     * the last requests were failed is failed by its own handler.
+     */
+    private volatile boolean stopping;
+
+    /**
+     * Constructor for the ClassificationServer class. The server does not
+     * listen until it is started.
+     * 
+     * @param registry
+     *            The registry holding the author profiles
+     * @param weights
+     *            The weight of each statistic
+     * @param analysisThreads
+     *            The number of documents analyzed at once
+     * @param maxBatch
+     *            The largest number of requests taken as one batch
+     */
+    public ClassificationServer(ProfileRegistry registry, double[] weights,
+            int analysisThreads, int maxBatch)
+    {
+        if (analysisThreads < 1 || maxBatch < 1)
+        {
+            throw new IllegalArgumentException(
+                    "analysisThreads and maxBatch must be at least 1");
+        }
+        this.registry = registry;
+        this.weights = weights.clone();
+        this.analysisThreads = analysisThreads;
+        this.maxBatch = maxBatch;
+        queue = new ArrayBlockingQueue<Request>(QUEUE_CAPACITY);
+        analysisSlots = new Semaphore(2 * analysisThreads);
+    }
+
+    /**
+     * Starts the service. A profile directory is required; the port, which
+     * defaults to 8080, and the number of analysis threads, which defaults to
+     * the number of processors, are optional. The server only listens on the
+     * loopback address, because it reads any file path it is sent.
+     * 
+     * @param args
+     *            The profile directory, then optionally the port and the
+     *            number of analysis threads
+     * @throws IOException
+     *             if the profiles cannot be read or the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 1)
+        {
+            System.out.println("Usage: java ClassificationServer "
+                    + "profileDirectory [port] [analysis threads]");
+            return;
+        }
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length > 1)
+        {
+            port = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2)
+        {
+            threads = Integer.parseInt(args[2]);
+        }
+        ProfileRegistry registry = new ProfileRegistry(Paths.get(args[0]));
+        registry.startWatching();
+        ClassificationServer server = new ClassificationServer(registry,
+                FindAuthor.defaultWeights(), threads, 4 * threads);
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                port));
+        System.out.println("Classifying on port " + server.getPort() + " with "
+                + registry.getProfiles().size() + " profiles");
+    }
+
+    /**
+     * Starts the analysis threads, the batching thread and the HTTP server.
+     * 
+     * @param address
+     *            The address to listen on. Port 0 picks a free port.
+     * @throws IOException
+     *             if the address cannot be bound.
+     */
+    public synchronized void start(InetSocketAddress address)
+            throws IOException
+    {
+        if (server != null)
+        {
+            throw new IllegalStateException("the server is already started");
+        }
+        stopping = false;
+        analysisPool = Executors.newFixedThreadPool(analysisThreads);
+        httpPool = Executors.newFixedThreadPool(HTTP_THREADS);
+        batcher = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                batchRequests();
+            }
+        }, "ClassificationServer batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+        server = HttpServer.create(address, 0);
+        server.createContext("/classify", new HttpHandler()
+        {
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                handleClassify(exchange);
+            }
+        });
+        server.setExecutor(httpPool);
+        server.start();
+    }
+
+    /**
+     * Stops the service. The batching thread is stopped first, and requests
+     * that were already handed to the analysis pool are finished before the
+     * pools shut down. Requests that are still waiting are failed, so no
+     * client is left waiting for a ranking that never comes.
+     */
+    public synchronized void stop()
+    {
+        if (server == null)
+        {
+            return;
+        }
+        stopping = true;
+        server.stop(0);
+        batcher.interrupt();
+        boolean interrupted = false;
+        while (batcher.isAlive())
+        {
+            try
+            {
+                batcher.join();
+            }
+            catch (InterruptedException e)
+            {
+                interrupted = true;
+            }
+        }
+        analysisPool.shutdown();
+        httpPool.shutdown();
+        failWaiting();
+        server = null;
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fails every request that is still in the queue.
+     */
+    private void failWaiting()
+    {
+        ArrayList<Request> left = new ArrayList<Request>();
+        queue.drainTo(left);
+        for (Request r : left)
+        {
+            r.ranking.completeExceptionally(new IOException(
+                    "the server was stopped"));
+        }
+    }
+
+    /**
+     * returns the port the server is listening on.
+     * 
+     * @return the port, or -1 if the server is not started.
+     */
+    public synchronized int getPort()
+    {
+        if (server == null)
+        {
+            return -1;
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Takes batches of waiting requests and hands them to the analysis pool
+     * until the batching thread is interrupted. A batch that cannot be handed
+     * over is failed by submitBatch().
+     */
+    private void batchRequests()
+    {
+        try
+        {
+            while (true)
+            {
+                ArrayList<Request> batch = new ArrayList<Request>();
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatch - 1);
+                submitBatch(batch, registry.getProfiles());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // the server is stopping
+        }
+        catch (RejectedExecutionException e)
+        {
+            // the analysis pool was shut down, so the server is stopping
+        }
+    }
+
+    /**
+     * Splits a batch into at most one task per analysis thread and submits
+     * the tasks, waiting for room on the analysis pool. If the server stops
+     * before every task is submitted, the requests of the tasks that were
+     * not submitted are failed.
+     * 
+     * @param batch
+     *            The requests of the batch
+     * @param profiles
+     *            The profiles every request of the batch is ranked against
+     * @throws InterruptedException
+     *             if the server is stopped while waiting.
+     */
+    private void submitBatch(final List<Request> batch,
+            final List<AuthorProfile> profiles) throws InterruptedException
+    {
+        final int tasks = Math.min(batch.size(), analysisThreads);
+        int submitted = 0;
+        try
+        {
+            for (int t = 0; t < tasks; t++)
+            {
+                submitTask(batch, profiles, t, tasks);
+                submitted++;
+            }
+        }
+        finally
+        {
+            for (int i = 0; i < batch.size(); i++)
+            {
+                if (i % tasks >= submitted)
+                {
+                    batch.get(i).ranking.completeExceptionally(
+                            new IOException("the server was stopped"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Submits one task of a batch, which classifies every tasks-th request
+     * of the batch starting at first.
+     * 
+     * @param batch
+     *            The requests of the batch
+     * @param profiles
+     *            The profiles every request of the batch is ranked against
+     * @param first
+     *            The position of the first request of the task
+     * @param tasks
+     *            The number of tasks the batch is split into
+     * @throws InterruptedException
+     *             if the server is stopped while waiting for room.
+     */
+    private void submitTask(final List<Request> batch,
+            final List<AuthorProfile> profiles, final int first,
+            final int tasks) throws InterruptedException
+    {
+        analysisSlots.acquire();
+        try
+        {
+            analysisPool.execute(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        for (int i = first; i < batch.size(); i += tasks)
+                        {
+                            classify(batch.get(i), profiles);
+                        }
+                    }
+                    finally
+                    {
+                        analysisSlots.release();
+                    }
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            // the analysis pool is shut down, so the task will never run
+            analysisSlots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Analyzes the document of a request and completes it with the ranking.
+     * 
+     * @param r
+     *            The request to be classified
+     * @param profiles
+     *            The profiles to rank the document against
+     */
+    private void classify(Request r, List<AuthorProfile> profiles)
+    {
+        try
+        {
+            double[] docStats;
+            if (r.file != null)
+            {
+                docStats = FindAuthor.getStatistics(r.file);
+            }
+            else
+            {
+                StatisticsEngine engine = StatisticsEngine.standard();
+                engine.run(new Scanner(new LineBreakReader(
+                        new CharArrayReader(r.text))));
+                docStats = engine.getValueArray();
+            }
+            r.ranking.complete(rank(docStats, profiles));
+        }
+        catch (IOException e)
+        {
+            r.ranking.completeExceptionally(e);
+        }
+        catch (RuntimeException e)
+        {
+            r.ranking.completeExceptionally(e);
+        }
+        catch (Error e)
+        {
+            // the client is still waiting, so it must be answered before the
+            // error goes on
+            r.ranking.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Ranks every profile by its distance from a document.
+     * 
+     * @param docStats
+     *            The statistics of the document
+     * @param profiles
+     *            The profiles to rank
+     * @return one line per profile, closest first, with the name, the
+     *         distance and the margin to the next author separated by tabs.
+     */
+    private String rank(double[] docStats, List<AuthorProfile> profiles)
+    {
+        StringBuilder sb = new StringBuilder();
+        if (profiles.isEmpty())
+        {
+            return "";
+        }
+        for (RankedAuthor a : FindAuthor.rank(docStats, profiles, weights,
+                profiles.size()))
+        {
+            sb.append(a.getName()).append('\t').append(a.getDistance())
+                    .append('\t').append(a.getMargin()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Handles a request to /classify: queues the document and returns. The
+     * ranking is sent back, and the exchange closed, when it completes.
+     * 
+     * @param exchange
+     *            The HTTP exchange of the request
+     * @throws IOException
+     *             if the response cannot be sent.
+     */
+    private void handleClassify(final HttpExchange exchange)
+            throws IOException
+    {
+        boolean queued = false;
+        try
+        {
+            String file = getParameter(exchange.getRequestURI(), "file");
+            Request r;
+            if (file != null)
+            {
+                r = new Request(file, null);
+            }
+            else if ("POST".equals(exchange.getRequestMethod()))
+            {
+                r = new Request(null, readBody(exchange));
+            }
+            else
+            {
+                respond(exchange, 400, "POST the text of a document, or "
+                        + "give its path as ?file=\n");
+                return;
+            }
+            if (!queue.offer(r))
+            {
+                respond(exchange, 503, "too many requests are waiting\n");
+                return;
+            }
+            queued = true;
+            if (stopping)
+            {
+                // stop() may have failed the waiting requests before this
+                // one was queued
+                failWaiting();
+            }
+            r.ranking.whenComplete(new BiConsumer<String, Throwable>()
+            {
+                public void accept(String ranking, Throwable failure)
+                {
+                    sendRanking(exchange, ranking, failure);
+                }
+            });
+        }
+        finally
+        {
+            if (!queued)
+            {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Sends the ranking of a queued request, or the reason it failed, and
+     * closes the exchange. It runs on the thread that completed the ranking.
+     * 
+     * @param exchange
+     *            The HTTP exchange of the request
+     * @param ranking
+     *            The ranking, or null if the request failed
+     * @param failure
+     *            The reason the request failed, or null if it was ranked
+     */
+    private static void sendRanking(HttpExchange exchange, String ranking,
+            Throwable failure)
+    {
+        try
+        {
+            if (failure == null)
+            {
+                respond(exchange, 200, ranking);
+            }
+            else
+            {
+                respond(exchange, 400, failure.getMessage() + "\n");
+            }
+        }
+        catch (IOException e)
+        {
+            // the client has gone, so there is no one to send it to
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Finds a parameter in the query of a URI.
+     * 
+     * @param uri
+     *            The URI of the request
+     * @param name
+     *            The name of the parameter
+     * @return the decoded value of the parameter, or null if it is missing.
+     * @throws UnsupportedEncodingException
+     *             never, since UTF-8 is always supported.
+     */
+    private static String getParameter(URI uri, String name)
+            throws UnsupportedEncodingException
+    {
+        String query = uri.getRawQuery();
+        if (query == null)
+        {
+            return null;
+        }
+        for (String pair : query.split("&"))
+        {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name))
+            {
+                return URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the body of a request as UTF-8 text.
+     * 
+     * @param exchange
+     *            The HTTP exchange of the request
+     * @return the characters of the body.
+     * @throws IOException
+     *             if the body cannot be read.
+     */
+    private static char[] readBody(HttpExchange exchange) throws IOException
+    {
+        Reader in = new InputStreamReader(exchange.getRequestBody(),
+                StandardCharsets.UTF_8);
+        CharArrayWriter out = new CharArrayWriter();
+        char[] buffer = new char[8192];
+        int read = in.read(buffer);
+        while (read != -1)
+        {
+            out.write(buffer, 0, read);
+            read = in.read(buffer);
+        }
+        in.close();
+        return out.toCharArray();
+    }
+
+    /**
+     * Sends a plain text response.
+     * 
+     * @param exchange
+     *            The HTTP exchange of the request
+     * @param status
+     *            The HTTP status code
+     * @param body
+     *            The text of the response
+     * @throws IOException
+     *             if the response cannot be sent.
+     */
+    private static void respond(HttpExchange exchange, int status, String body)
+            throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type",
+                "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
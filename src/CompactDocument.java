@@ -0,0 +1,266 @@
+import java.util.Arrays;
+
+/**
+ * A CompactDocument holds the same sentences, phrases and words as a parsed
+ * Document, but in a handful of int arrays instead of a tree of objects.
+ * Every word is stored once in a Vocabulary, and the document itself is the
+ * array of the ids of its words in order. Phrases are stored as the
+ * positions in that array where each of them ends, and sentences as the
+ * positions in the phrase array where each of them ends. A document of a
+ * million words therefore takes a few megabytes of arrays and its
+ * vocabulary, instead of millions of Token, Phrase and Sentence objects.
+ * 
+ * The document is split into phrases and sentences exactly the way
+ * Document.parseDocument() splits it, so both give the same statistics.
+ * Sentence s is made of phrases getFirstPhrase(s) up to, but not including,
+ * getPhraseEnd(s), and phrase p of words getFirstWord(p) up to getWordEnd(p).
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class CompactDocument
+{
+    private Vocabulary vocabulary;
+    /**
+     * The id of every word of the document, in order.
+     */
+    private int[] words;
+    private int wordCount;
+    /**
+     * The position in words just after the last word of each phrase.
+     */
+    private int[] phraseEnds;
+    private int phraseCount;
+    /**
+     * The position in phraseEnds just after the last phrase of each sentence.
+     */
+    private int[] sentenceEnds;
+    private int sentenceCount;
+
+    /**
+     * Constructor for the CompactDocument class. Every token of the scanner
+     * is read, until the end of the file.
+     * 
+     * @param in
+     *            The scanner to read the document from
+     */
+    public CompactDocument(Scanner in)
+    {
+        vocabulary = new Vocabulary();
+        words = new int[1024];
+        phraseEnds = new int[128];
+        sentenceEnds = new int[32];
+        boolean sentenceOpen = false;
+        boolean phraseOpen = false;
+        Token t = in.nextToken();
+        while (!t.getType().equals(Scanner.TOKEN_TYPE.END_OF_FILE))
+        {
+            Scanner.TOKEN_TYPE type = t.getType();
+            if (!phraseOpen && type.equals(Scanner.TOKEN_TYPE.END_OF_SENTENCE))
+            {
+                // either an empty sentence, or a sentence whose last phrase
+                // was already ended by a phrase terminator
+                endSentence();
+                sentenceOpen = false;
+            }
+            else
+            {
+                sentenceOpen = true;
+                phraseOpen = true;
+                if (type.equals(Scanner.TOKEN_TYPE.WORD))
+                {
+                    addWord(vocabulary.add(t.getStr()));
+                }
+                else if (type.equals(Scanner.TOKEN_TYPE.END_OF_PHRASE))
+                {
+                    endPhrase();
+                    phraseOpen = false;
+                }
+                else if (type.equals(Scanner.TOKEN_TYPE.END_OF_SENTENCE))
+                {
+                    endPhrase();
+                    endSentence();
+                    phraseOpen = false;
+                    sentenceOpen = false;
+                }
+            }
+            t = in.nextToken();
+        }
+        if (phraseOpen)
+        {
+            endPhrase();
+        }
+        if (sentenceOpen)
+        {
+            endSentence();
+        }
+        words = Arrays.copyOf(words, wordCount);
+        phraseEnds = Arrays.copyOf(phraseEnds, phraseCount);
+        sentenceEnds = Arrays.copyOf(sentenceEnds, sentenceCount);
+    }
+
+    /**
+     * Adds a word to the end of the current phrase.
+     * 
+     * @param id
+     *            The vocabulary id of the word
+     */
+    private void addWord(int id)
+    {
+        if (wordCount == words.length)
+        {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        words[wordCount] = id;
+        wordCount++;
+    }
+
+    /**
+     * Ends the current phrase after the last word added.
+     */
+    private void endPhrase()
+    {
+        if (phraseCount == phraseEnds.length)
+        {
+            phraseEnds = Arrays.copyOf(phraseEnds, phraseEnds.length * 2);
+        }
+        phraseEnds[phraseCount] = wordCount;
+        phraseCount++;
+    }
+
+    /**
+     * Ends the current sentence after the last phrase ended.
+     */
+    private void endSentence()
+    {
+        if (sentenceCount == sentenceEnds.length)
+        {
+            sentenceEnds = Arrays.copyOf(sentenceEnds, sentenceEnds.length * 2);
+        }
+        sentenceEnds[sentenceCount] = phraseCount;
+        sentenceCount++;
+    }
+
+    /**
+     * returns the vocabulary of the document, which also counts how often
+     * each word occurs in it.
+     * 
+     * @return the vocabulary of the document.
+     */
+    public Vocabulary getVocabulary()
+    {
+        return vocabulary;
+    }
+
+    /**
+     * returns the number of sentences in the document.
+     * 
+     * @return the number of sentences.
+     */
+    public int getSentenceCount()
+    {
+        return sentenceCount;
+    }
+
+    /**
+     * returns the number of phrases in the document.
+     * 
+     * @return the number of phrases.
+     */
+    public int getPhraseCount()
+    {
+        return phraseCount;
+    }
+
+    /**
+     * returns the number of words in the document.
+     * 
+     * @return the number of words.
+     */
+    public int getWordCount()
+    {
+        return wordCount;
+    }
+
+    /**
+     * returns the index of the first phrase of a sentence.
+     * 
+     * @param sentence
+     *            The index of the sentence
+     * @return the index of its first phrase.
+     */
+    public int getFirstPhrase(int sentence)
+    {
+        if (sentence == 0)
+        {
+            return 0;
+        }
+        return sentenceEnds[sentence - 1];
+    }
+
+    /**
+     * returns the index just after the last phrase of a sentence.
+     * 
+     * @param sentence
+     *            The index of the sentence
+     * @return the index of the first phrase of the next sentence.
+     */
+    public int getPhraseEnd(int sentence)
+    {
+        return sentenceEnds[sentence];
+    }
+
+    /**
+     * returns the index of the first word of a phrase.
+     * 
+     * @param phrase
+     *            The index of the phrase
+     * @return the index of its first word.
+     */
+    public int getFirstWord(int phrase)
+    {
+        if (phrase == 0)
+        {
+            return 0;
+        }
+        return phraseEnds[phrase - 1];
+    }
+
+    /**
+     * returns the index just after the last word of a phrase.
+     * 
+     * @param phrase
+     *            The index of the phrase
+     * @return the index of the first word of the next phrase.
+     */
+    public int getWordEnd(int phrase)
+    {
+        return phraseEnds[phrase];
+    }
+
+    /**
+     * returns the vocabulary id of a word.
+     * 
+     * @param word
+     *            The index of the word in the document
+     * @return the id of the word in the vocabulary.
+     */
+    public int getWordId(int word)
+    {
+        return words[word];
+    }
+
+    /**
+     * returns a word of the document.
+     * 
+     * @param word
+     *            The index of the word in the document
+     * @return the word, lower cased as the Scanner returned it.
+     */
+    public String getWord(int word)
+    {
+        return vocabulary.getWord(words[word]);
+    }
+}
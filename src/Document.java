@@ -1,4 +1,10 @@
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A document is responsible for reading an input stream, one token at a time
@@ -136,12 +142,65 @@ public class Document
      */
     public void parseDocument()
     {
+        long start = PipelineMetrics.start();
+        long scanned = in.getInstrumentedNanos();
+        int before = sentenceCollection.size();
         // continues until the end of the file is reached
         while (!currentToken.getType().equals(Scanner.TOKEN_TYPE.END_OF_FILE))
         {
             sentenceCollection.add(parseSentence());
             eat(currentToken);
         }
+        PipelineMetrics.stop(PipelineMetrics.Stage.PARSE, start,
+                in.getInstrumentedNanos() - scanned, sentenceCollection.size()
+                        - before);
+    }
+
+    /**
+     * Returns an iterator that parses the rest of the document one sentence
+     * at a time, as the sentences are asked for. The sentences are not added
+     * to the sentenceCollection, so a sentence can be garbage collected as
+     * soon as the caller is done with it, and the caller can stop early
+     * without the rest of the file being read. The iterator shares the
+     * scanner of the document, so sentences it returns are not returned again
+     * by parseDocument() or another iterator.
+     * 
+     * @return an iterator over the sentences that have not been parsed yet.
+     */
+    public Iterator<Sentence> sentenceIterator()
+    {
+        return new Iterator<Sentence>()
+        {
+            public boolean hasNext()
+            {
+                return !currentToken.getType().equals(
+                        Scanner.TOKEN_TYPE.END_OF_FILE);
+            }
+
+            public Sentence next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                Sentence s = parseSentence();
+                eat(currentToken);
+                return s;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream that parses the rest of the document one
+     * sentence at a time, as the stream pulls them. See sentenceIterator().
+     * 
+     * @return a lazy stream of the sentences that have not been parsed yet.
+     */
+    public Stream<Sentence> sentences()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                sentenceIterator(), Spliterator.ORDERED
+                        | Spliterator.NONNULL), false);
     }
 
     /**
@@ -1,7 +1,3 @@
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * The DocumentStatistics class takes in a document class and is able to
  * calculate the average word length, the type-token ratio, the hapax legomana
@@ -14,36 +10,55 @@ import java.util.Set;
  * The hapax legomana ratio is the number of unique words in a document to the
  * words appearing only once in the document.
  * 
+ * All five statistics are calculated together in a single pass over the
+ * document by a StatisticsEngine when the object is constructed.
+ * 
  * @author Aashish Jain
  *
  */
 public class DocumentStatistics
 {
     /**
-     * The only state variable of the document statistics class, this is the
-     * document for the statistics to be calculated for.
+     * The engine that holds the statistics calculated for the document.
      */
-    private Document d;
+    private StatisticsEngine engine;
 
     /**
-     * The constructor for the documentStatstics class takes in a document and
-     * parses the document to add sentences to its sentenceCollection.
+     * The constructor for the documentStatstics class takes in a document.
+     * The statistics are calculated in one pass over the sentences already in
+     * its sentenceCollection, followed by the rest of the document, which is
+     * parsed lazily one sentence at a time. Those sentences are not added to
+     * the sentenceCollection, so only one of them is held in memory at once.
      * 
      * @param doc
      *            The document to find the statistics for
      */
     public DocumentStatistics(Document doc)
     {
-        d = doc;
-        d.parseDocument();
+        engine = StatisticsEngine.standard();
+        engine.run(doc);
+        engine.run(doc.sentenceIterator());
+    }
+
+    /**
+     * A constructor for the documentStatistics class that takes in a compact
+     * document, which is already parsed. The statistics are calculated in one
+     * pass over its arrays.
+     * 
+     * @param doc
+     *            The compact document to find the statistics for
+     */
+    public DocumentStatistics(CompactDocument doc)
+    {
+        engine = StatisticsEngine.standard();
+        engine.run(doc);
     }
 
     /**
      * This method returns the average word length from the document that was
-     * passed through the documentStatistics class. To do so, this method adds
-     * up the length of each word in the sentenceCollection arrayList that is
-     * stored in the document, and then divides the returned number by the
-     * amount of words.
+     * passed through the documentStatistics class. This is the sum of the
+     * length of each word in the sentenceCollection arrayList that is stored
+     * in the document, divided by the amount of words.
      * 
      * @precondition No preconditions are associated with this method, but if
      *               the number of words in the document is 0, the program will
@@ -55,33 +70,15 @@ public class DocumentStatistics
      */
     public double getAverageWordLength()
     {
-        int totalWords = 0;
-        int totalWordLength = 0;
-        for (Sentence s : d.getSentenceCollection())
-        {
-            ArrayList<Phrase> phrases = s.copy();
-            for (Phrase p : phrases)
-            {
-                ArrayList<Token> tokens = p.copy();
-                totalWords += tokens.size();
-                for (Token t : tokens)
-                {
-                    totalWordLength += t.getStr().length();
-                }
-            }
-        }
-
-        double answer = (double) totalWordLength / totalWords;
-        return answer;
+        return engine.getValue(StatisticsEngine.AVERAGE_WORD_LENGTH);
     }
 
     /**
      * This method returns the ratio of the number of unique words in the
-     * document to the number of words in the document. To do so, this method
-     * goes through every word in the document, adding it to a set of words if
-     * it is unique. Thus, if the word is already contained in the set, it is
-     * not added. To obtain the ratio, the number of elements in the set is
-     * divided by the total number of words in the document.
+     * document to the number of words in the document. Every word in the
+     * document is given an id in a Vocabulary, which counts each id in a
+     * table indexed by id, so the number of ids divided by the total number
+     * of words in the document gives the ratio.
      * 
      * @precondition No preconditions are associated with this method, but if
      *               the number of words in the document is 0, the program will
@@ -93,42 +90,16 @@ public class DocumentStatistics
      */
     public double getTypeTokenRatio()
     {
-        Set<String> uniqueWords = new HashSet<String>();
-        int totalWords = 0;
-        for (Sentence s : d.getSentenceCollection())
-        {
-            ArrayList<Phrase> phrases = s.copy();
-            for (Phrase p : phrases)
-            {
-                ArrayList<Token> tokens = p.copy();
-                totalWords += tokens.size();
-                for (Token t : tokens)
-                {
-                    String word = t.getStr();
-                    word.toLowerCase();
-                    uniqueWords.add(word);
-                }
-            }
-        }
-        int numberOfUniqueWords = uniqueWords.size();
-        double answer = (double) numberOfUniqueWords / (double) totalWords;
-        return answer;
+        return engine.getValue(StatisticsEngine.TYPE_TOKEN_RATIO);
     }
 
     /**
      * This method returns the ratio of words that have appeared once to the
-     * total number of words in the document. To do so, this method creates two
-     * sets. One set is a set of the words that have appeared once. The other
-     * set is the set of words that have appeared more than once. If a word is
-     * in neither of the sets, the word is added to the set of words that appear
-     * once. If the word is already in the set of words that have appeared once,
-     * then it is added to the set of words that have appeared more than once,
-     * and taken out of the set of words that have appeared once. If a word is
-     * already in the set of words that have appeared more than once then the
-     * word is discarded. To get the number of words that have appeared once,
-     * simply count the elements in the words that have appeared once set. To
-     * get the ratio, divide the number of words that have appeared once with
-     * the total number of words in the document.
+     * total number of words in the document. Every word in the document is
+     * given an id in a Vocabulary, which counts each id in a table indexed by
+     * id and keeps track of how many ids have a count of exactly one. That
+     * number divided by the total number of words in the document gives the
+     * ratio.
      * 
      * @precondition No preconditions are associated with this method, but if
      *               the number of total words in the document is 0, the program
@@ -140,41 +111,13 @@ public class DocumentStatistics
      */
     public double getHapaxLegomana()
     {
-        Set<String> appearedOnce = new HashSet<String>();
-        Set<String> appearedMoreThanOnce = new HashSet<String>();
-        int totalWords = 0;
-        for (Sentence s : d.getSentenceCollection())
-        {
-            ArrayList<Phrase> phrases = s.copy();
-            for (Phrase p : phrases)
-            {
-                ArrayList<Token> tokens = p.copy();
-                totalWords += tokens.size();
-                for (Token t : tokens)
-                {
-                    String word = t.getStr().toLowerCase();
-                    if (!appearedOnce.contains(word)
-                            && !appearedMoreThanOnce.contains(word))
-                    {
-                        appearedOnce.add(word);
-                    } else if (appearedOnce.contains(word))
-                    {
-                        appearedMoreThanOnce.add(word);
-                        appearedOnce.remove(word);
-                    }
-                }
-            }
-        }
-        int oneAppearance = appearedOnce.size();
-        double answer = (double) oneAppearance / (double) totalWords;
-        return answer;
+        return engine.getValue(StatisticsEngine.HAPAX_LEGOMANA);
     }
 
     /**
-     * This method returns the average number of words per sentence. To do so,
-     * this function adds up the number of words total in the document, and
-     * divides it by the number of elements in the document’s
-     * sentenceCollection.
+     * This method returns the average number of words per sentence. This is
+     * the number of words total in the document divided by the number of
+     * elements in the document’s sentenceCollection.
      * 
      * @precondition No preconditions are associated with this method, but if
      *               the number of sentences in the document is 0, the program
@@ -186,26 +129,14 @@ public class DocumentStatistics
      */
     public double getAverageWordsPerSentence()
     {
-        int totalWords = 0;
-        int numberOfSentences = d.getSentenceCollection().size();
-        for (Sentence s : d.getSentenceCollection())
-        {
-            ArrayList<Phrase> phrases = s.copy();
-            for (Phrase p : phrases)
-            {
-                ArrayList<Token> tokens = p.copy();
-                totalWords += tokens.size();
-            }
-        }
-        double answer = (double) totalWords / (double) numberOfSentences;
-        return answer;
+        return engine
+                .getValue(StatisticsEngine.AVERAGE_WORDS_PER_SENTENCE);
     }
 
     /**
-     * This method returns the average number of phrases per sentence. To do so,
-     * this method accesses the document’s sentenceCollection and checks the
-     * amount of phrases in each element of the sentenceCollection. Then, adds
-     * up the total number of phrases and divides it by the number of sentences.
+     * This method returns the average number of phrases per sentence. This is
+     * the total number of phrases in the elements of the document’s
+     * sentenceCollection divided by the number of sentences.
      * 
      * @precondition No preconditions associated with this method, but if the
      *               number of sentences is 0, the program will return “NaN,”
@@ -217,15 +148,7 @@ public class DocumentStatistics
      */
     public double getSentenceComplexity()
     {
-        int totalPhrases = 0;
-        int totalSentences = d.getSentenceCollection().size();
-        for (Sentence s : d.getSentenceCollection())
-        {
-            ArrayList<Phrase> phrases = s.copy();
-            totalPhrases += phrases.size();
-        }
-        double answer = (double) totalPhrases / (double) totalSentences;
-        return answer;
+        return engine.getValue(StatisticsEngine.SENTENCE_COMPLEXITY);
     }
 
 }
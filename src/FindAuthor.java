@@ -1,8 +1,12 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * The FindAuthor's class takes in the filePath of the document you want to find
@@ -41,89 +45,279 @@ public class FindAuthor
     {
         docFile = dFile;
         statFiles = sFiles;
-        weights = new double[5];
+        weights = defaultWeights();
+    }
+
+    /**
+     * Creates the weights given to each statistic when comparing a document
+     * to the stat files.
+     * 
+     * @return a new array of the default weights.
+     */
+    public static double[] defaultWeights()
+    {
+        double[] weights = new double[5];
         weights[0] = 11;
         weights[1] = 33;
         weights[2] = 50;
         weights[3] = 0.4;
         weights[4] = 4;
+        return weights;
     }
 
     /**
-     * Creates and parses the document of the instance variable of docFile.
-     * 
-     * @return the created and parsed document
+     * Opens a text file for scanning. The returned reader is buffered and
+     * replaces line breaks with spaces.
      * 
+     * @param file
+     *            The file path of the text file.
+     * @return a reader over the contents of the file.
      * @throws IOException
-     *             if the file in the instanceField is not found.
+     *             if the file is not found.
      */
-    private Document getDocumentFromFile() throws IOException
+    public static Reader openDocument(String file) throws IOException
     {
-        BufferedReader br = new BufferedReader(new FileReader(docFile));
-        String currentString;
-        String docString = "";
-        while ((currentString = br.readLine()) != null)
-        {
-            docString += currentString + " ";
-        }
-        StringReader documentString = new StringReader(docString);
-        Scanner scanner = new Scanner(documentString);
-        Document d = new Document(scanner);
-        d.parseDocument();
-        return d;
+        return new LineBreakReader(new BufferedReader(new FileReader(file)));
     }
 
     /**
-     * Creates an arrayList of all of the statistics of the document file that
-     * was given.
+     * Creates an array of all of the statistics of the document file that was
+     * given.
      * 
-     * @return an arrayList of all the statistics of the given document file.
+     * @return an array of all the statistics of the given document file.
      * 
      * @throws IOException
      *             if the file given is not found.
      */
-    private ArrayList<Double> getDocumentStatistics() throws IOException
+    private double[] getDocumentStatistics() throws IOException
     {
-        Document d = getDocumentFromFile();
-        DocumentStatistics ds = new DocumentStatistics(d);
-        ArrayList<Double> answer = new ArrayList<Double>();
-        double averageWordLength = ds.getAverageWordLength();
-        answer.add(averageWordLength);
-        double TTR = ds.getTypeTokenRatio();
-        answer.add(TTR);
-        double HLR = ds.getHapaxLegomana();
-        answer.add(HLR);
-        double averageSentenceLength = ds.getAverageWordsPerSentence();
-        answer.add(averageSentenceLength);
-        double averageSentenceComplexity = ds.getSentenceComplexity();
-        answer.add(averageSentenceComplexity);
-        return answer;
+        return getStatistics(docFile);
+    }
+
+    /**
+     * Calculates all of the statistics of a document file, in the order of
+     * the StatisticsEngine constants. The statistics are calculated in one
+     * pass over the tokens of the file, without building the sentences of a
+     * Document.
+     * 
+     * @param file
+     *            The file path of the document file.
+     * @return an array of all the statistics of the document file.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public static double[] getStatistics(String file) throws IOException
+    {
+        return analyze(file).getValueArray();
     }
 
     /**
-     * Gets the statistics in the correct order of the given statFile.
+     * Runs the standard statistics over a document file.
      * 
-     * @param statFile
-     *            The statfile to compile the statistics for.
-     * @return An ArrayList of the statistics in the statFile.
+     * @param file
+     *            The file path of the document file.
+     * @return the engine holding the statistics of the document file.
      * @throws IOException
      *             if the file is not found.
      */
-    private ArrayList<Double> getStatsOfStatFile(String statFile)
-            throws IOException
+    public static StatisticsEngine analyze(String file) throws IOException
     {
-        BufferedReader br = new BufferedReader(new FileReader(statFile));
-        br.readLine();
-        ArrayList<Double> answer = new ArrayList<Double>();
-        for (int i = 0; i < 5; i++)
+        return analyze(file, StatisticsEngine.standard());
+    }
+
+    /**
+     * Runs the statistics registered with an engine over a document file.
+     * 
+     * @param file
+     *            The file path of the document file.
+     * @param engine
+     *            The engine to stream the document through.
+     * @return the engine, now holding the statistics of the document file.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public static StatisticsEngine analyze(String file,
+            StatisticsEngine engine) throws IOException
+    {
+        Reader reader = openDocument(file);
+        try
+        {
+            engine.run(new Scanner(reader));
+            return engine;
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Finds the profile whose statistics are closest to the statistics of a
+     * document. If several profiles are equally close, the first of them is
+     * returned. A profile stops being compared as soon as its partial
+     * distance passes the closest distance so far.
+     * 
+     * @param docStats
+     *            The statistics of the document
+     * @param profiles
+     *            The profiles to compare the document to
+     * @param weights
+     *            The weight of each statistic
+     * @return the closest profile.
+     */
+    public static AuthorProfile findClosest(double[] docStats,
+            List<AuthorProfile> profiles, double[] weights)
+    {
+        long start = PipelineMetrics.start();
+        boolean canAbandon = isNonNegative(weights);
+        int indexOfSmallest = 0;
+        double smallest = profiles.get(0).distanceTo(docStats, weights);
+        for (int index = 1; index < profiles.size(); index++)
+        {
+            double bound = Double.POSITIVE_INFINITY;
+            if (canAbandon)
+            {
+                bound = smallest;
+            }
+            double distance = profiles.get(index).distanceTo(docStats, weights,
+                    bound);
+            if (distance < smallest)
+            {
+                indexOfSmallest = index;
+                smallest = distance;
+            }
+        }
+        PipelineMetrics.stop(PipelineMetrics.Stage.CLASSIFY, start, 0,
+                profiles.size());
+        PipelineMetrics.count(PipelineMetrics.Counter.PROFILES_COMPARED,
+                profiles.size());
+        return profiles.get(indexOfSmallest);
+    }
+
+    /**
+     * Ranks the k profiles closest to the statistics of a document. The
+     * closest profiles are kept in a bounded heap, and a profile stops being
+     * compared as soon as its partial distance passes the farthest profile in
+     * the heap. Equally close profiles keep their order in the list, so the
+     * first entry is always the profile findClosest() returns.
+     * 
+     * @param docStats
+     *            The statistics of the document
+     * @param profiles
+     *            The profiles to compare the document to
+     * @param weights
+     *            The weight of each statistic
+     * @param k
+     *            The number of authors to rank, at least 1
+     * @return the min(k, profiles.size()) closest authors, closest first.
+     */
+    public static List<RankedAuthor> rank(double[] docStats,
+            List<AuthorProfile> profiles, double[] weights, int k)
+    {
+        if (k < 1)
+        {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        long start = PipelineMetrics.start();
+        boolean canAbandon = isNonNegative(weights);
+        // one more than k is kept, to know the margin of the k-th author
+        int keep = Math.min(k + 1, profiles.size());
+        PriorityQueue<double[]> heap = new PriorityQueue<double[]>(Math.max(
+                keep, 1), new Comparator<double[]>()
+        {
+            public int compare(double[] a, double[] b)
+            {
+                return -compareRanked(a, b);
+            }
+        });
+        for (int index = 0; index < profiles.size(); index++)
+        {
+            double bound = Double.POSITIVE_INFINITY;
+            if (canAbandon && heap.size() == keep)
+            {
+                bound = heap.peek()[0];
+            }
+            double[] candidate = {
+                    profiles.get(index).distanceTo(docStats, weights, bound),
+                    index };
+            if (heap.size() < keep)
+            {
+                heap.add(candidate);
+            }
+            else if (compareRanked(candidate, heap.peek()) < 0)
+            {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+        ArrayList<double[]> sorted = new ArrayList<double[]>(heap);
+        Collections.sort(sorted, new Comparator<double[]>()
+        {
+            public int compare(double[] a, double[] b)
+            {
+                return compareRanked(a, b);
+            }
+        });
+        ArrayList<RankedAuthor> answer = new ArrayList<RankedAuthor>();
+        for (int i = 0; i < Math.min(k, sorted.size()); i++)
         {
-            String stat = br.readLine();
-            double val = Double.parseDouble(stat);
-            answer.add(val);
+            double margin = Double.POSITIVE_INFINITY;
+            if (i + 1 < sorted.size())
+            {
+                margin = sorted.get(i + 1)[0] - sorted.get(i)[0];
+            }
+            answer.add(new RankedAuthor(profiles.get((int) sorted.get(i)[1]),
+                    i + 1, sorted.get(i)[0], margin));
         }
+        PipelineMetrics.stop(PipelineMetrics.Stage.CLASSIFY, start, 0,
+                profiles.size());
+        PipelineMetrics.count(PipelineMetrics.Counter.PROFILES_COMPARED,
+                profiles.size());
         return answer;
     }
 
+    /**
+     * Orders ranked profiles by distance, and equal distances by position.
+     * 
+     * @param a
+     *            a profile as {distance, position}
+     * @param b
+     *            a profile as {distance, position}
+     * @return a negative number if a ranks before b.
+     */
+    private static int compareRanked(double[] a, double[] b)
+    {
+        if (a[0] < b[0])
+        {
+            return -1;
+        }
+        if (a[0] > b[0])
+        {
+            return 1;
+        }
+        return Double.compare(a[1], b[1]);
+    }
+
+    /**
+     * Checks that no weight is negative, which is what allows a partial
+     * distance to be abandoned: the sum can then only grow.
+     * 
+     * @param weights
+     *            The weight of each statistic
+     * @return true if every weight is at least 0, or false otherwise.
+     */
+    private static boolean isNonNegative(double[] weights)
+    {
+        for (double w : weights)
+        {
+            if (!(w >= 0))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Prints out the string of the author of the text passed into the
      * FindAuthor object by comparing the statistics in that file to all of the
@@ -137,29 +331,25 @@ public class FindAuthor
      */
     public String findAuthor() throws IOException
     {
-        ArrayList<Double> docStats = getDocumentStatistics();
-        ArrayList<Double> answers = new ArrayList<Double>();
-        for (int i = 0; i < statFiles.size(); i++)
-        {
-            ArrayList<Double> statF = getStatsOfStatFile(statFiles.get(i));
-            double total = 0;
-            for (int k = 0; k < statF.size(); k++)
-            {
-                total += (Math.abs(docStats.get(k) - statF.get(k)))
-                        * weights[k];
-            }
-            answers.add(total);
-        }
-        int indexOfSmallest = 0;
-        for (int index = 0; index < answers.size(); index++)
-        {
-            if (answers.get(index) < answers.get(indexOfSmallest))
-            {
-                indexOfSmallest = index;
-            }
-        }
-        BufferedReader br = new BufferedReader(new FileReader(
-                statFiles.get(indexOfSmallest)));
-        return br.readLine();
+        double[] docStats = getDocumentStatistics();
+        ArrayList<AuthorProfile> profiles = AuthorProfile.loadAll(statFiles);
+        return findClosest(docStats, profiles, weights).getName();
+    }
+
+    /**
+     * Ranks the authors of the stat files by how close they are to the text
+     * passed into the FindAuthor object.
+     * 
+     * @param k
+     *            The number of authors to rank, at least 1
+     * @return the k closest authors with their distances and margins,
+     *         closest first.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public List<RankedAuthor> rankAuthors(int k) throws IOException
+    {
+        double[] docStats = getDocumentStatistics();
+        return rank(docStats, AuthorProfile.loadAll(statFiles), weights, k);
     }
 }
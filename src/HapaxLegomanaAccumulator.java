@@ -0,0 +1,104 @@
+/**
+ * Accumulates the hapax legomana ratio of a document, the number of words that
+ * appear exactly once divided by the total number of words. Both numbers are
+ * read from a Vocabulary, which is either the accumulator's own or the one
+ * filled by the StatisticsEngine the accumulator is registered with.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class HapaxLegomanaAccumulator implements StatisticAccumulator
+{
+    private Vocabulary vocabulary;
+    /**
+     * True if the vocabulary belongs to this accumulator, or false if it is
+     * filled and merged by a StatisticsEngine.
+     */
+    private boolean ownsVocabulary;
+
+    /**
+     * Constructor for a HapaxLegomanaAccumulator that keeps its own
+     * vocabulary. It adds every word to that vocabulary itself, and merging
+     * another accumulator merges the other's vocabulary into it.
+     */
+    public HapaxLegomanaAccumulator()
+    {
+        this.vocabulary = new Vocabulary();
+        ownsVocabulary = true;
+    }
+
+    /**
+     * Constructor for a HapaxLegomanaAccumulator that reads the vocabulary of
+     * a StatisticsEngine. The engine adds the words to the vocabulary and
+     * merges it, so this accumulator neither adds words nor merges anything.
+     * 
+     * @param vocabulary
+     *            The vocabulary of the engine this accumulator is registered
+     *            with (see StatisticsEngine.getVocabulary())
+     */
+    public HapaxLegomanaAccumulator(Vocabulary vocabulary)
+    {
+        this.vocabulary = vocabulary;
+        ownsVocabulary = false;
+    }
+
+    /**
+     * Adds the word to the vocabulary, unless the engine already has.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    public void addWord(String word)
+    {
+        if (ownsVocabulary)
+        {
+            vocabulary.add(word);
+        }
+    }
+
+    /**
+     * Phrases do not affect the hapax legomana ratio.
+     */
+    public void endPhrase()
+    {
+    }
+
+    /**
+     * Sentences do not affect the hapax legomana ratio.
+     */
+    public void endSentence()
+    {
+    }
+
+    /**
+     * Merges the vocabulary of another accumulator into this one's. An
+     * accumulator reading an engine's vocabulary merges nothing, since
+     * StatisticsEngine.merge() merges the vocabulary itself, before the
+     * accumulators.
+     * 
+     * @param other
+     *            a HapaxLegomanaAccumulator
+     */
+    public void merge(StatisticAccumulator other)
+    {
+        HapaxLegomanaAccumulator o = (HapaxLegomanaAccumulator) other;
+        if (ownsVocabulary)
+        {
+            vocabulary.merge(o.vocabulary);
+        }
+    }
+
+    /**
+     * Returns the hapax legomana ratio.
+     * 
+     * @return the number of words that appeared once divided by the number of
+     *         words.
+     */
+    public double getValue()
+    {
+        return (double) vocabulary.getHapaxCount()
+                / (double) vocabulary.getTokenCount();
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * A HapaxSampler estimates how many distinct words were seen exactly once,
+ * and how many distinct words were seen at all, while keeping at most a fixed
+ * number of words. It keeps an exact count for a sample of the distinct words
+ * chosen by their hash (distinct sampling, Gibbons 2001): at level L a word is
+ * in the sample if the lowest L bits of its hash are zero, so every distinct
+ * word is sampled with probability 2^-L however often it occurs. When the
+ * sample grows past its capacity the level goes up by one, which drops about
+ * half of the sampled words. Counts in the sample are exact, and the numbers
+ * of the whole text are estimated by multiplying by 2^L.
+ * 
+ * The estimates are unbiased. When the sample holds h words that were seen
+ * once, the relative standard error of the hapax estimate is about
+ * 1 / sqrt(h); with a capacity of m the sample holds roughly
+ * m * hapax / types of them once the capacity has been reached, so for the
+ * mystery texts (about half of the types are hapax) a capacity of 4096 gives
+ * a relative standard error near 2%. Below the capacity the answers are
+ * exact.
+ * 
+ * Words are kept by their 64 bit hash, so a sample of capacity m uses about
+ * 24 * m bytes.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class HapaxSampler
+{
+    private int capacity;
+    private int level;
+    // open addressing table of sampled hashes; 0 marks an empty slot
+    private long[] hashes;
+    private int[] counts;
+    private int size;
+
+    /**
+     * Constructor for the HapaxSampler class.
+     * 
+     * @param capacity
+     *            The largest number of distinct words kept
+     */
+    public HapaxSampler(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        int slots = 2;
+        while (slots < 2 * capacity + 2)
+        {
+            slots *= 2;
+        }
+        hashes = new long[slots];
+        counts = new int[slots];
+        level = 0;
+        size = 0;
+    }
+
+    /**
+     * Adds a word.
+     * 
+     * @param word
+     *            The word to be added
+     */
+    public void add(CharSequence word)
+    {
+        add(HyperLogLog.hash(word), 1);
+    }
+
+    /**
+     * Adds occurrences of a word given by its hash.
+     * 
+     * @param hash
+     *            The 64 bit hash of the word
+     * @param occurrences
+     *            The number of times the word was seen
+     */
+    private void add(long hash, int occurrences)
+    {
+        if (hash == 0)
+        {
+            hash = 1;
+        }
+        if (!sampled(hash))
+        {
+            return;
+        }
+        int slot = slotOf(hash);
+        if (hashes[slot] == 0)
+        {
+            hashes[slot] = hash;
+            size++;
+        }
+        counts[slot] += occurrences;
+        while (size > capacity)
+        {
+            level++;
+            filter();
+        }
+    }
+
+    /**
+     * Checks if a hash belongs in the sample at the current level.
+     * 
+     * @param hash
+     *            The hash of a word
+     * @return true if the lowest level bits of the hash are zero.
+     */
+    private boolean sampled(long hash)
+    {
+        return level >= 64 || (hash & ((1L << level) - 1)) == 0;
+    }
+
+    /**
+     * Finds the slot of a hash, or the empty slot where it would go.
+     * 
+     * @param hash
+     *            The hash of a word
+     * @return the index of the slot.
+     */
+    private int slotOf(long hash)
+    {
+        int mask = hashes.length - 1;
+        int slot = (int) (hash >>> 40) & mask;
+        while (hashes[slot] != 0 && hashes[slot] != hash)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Drops the words that no longer belong in the sample at the current
+     * level.
+     */
+    private void filter()
+    {
+        long[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        hashes = new long[oldHashes.length];
+        counts = new int[oldCounts.length];
+        size = 0;
+        for (int i = 0; i < oldHashes.length; i++)
+        {
+            if (oldHashes[i] != 0 && sampled(oldHashes[i]))
+            {
+                int slot = slotOf(oldHashes[i]);
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of distinct words seen exactly once.
+     * 
+     * @return the estimated number of hapax legomena.
+     */
+    public double estimateHapax()
+    {
+        int once = 0;
+        for (int i = 0; i < hashes.length; i++)
+        {
+            if (hashes[i] != 0 && counts[i] == 1)
+            {
+                once++;
+            }
+        }
+        return Math.scalb((double) once, level);
+    }
+
+    /**
+     * Estimates the number of distinct words seen.
+     * 
+     * @return the estimated number of types.
+     */
+    public double estimateTypes()
+    {
+        return Math.scalb((double) size, level);
+    }
+
+    /**
+     * Adds the sample of another HapaxSampler to this one. Both are brought
+     * to the higher of their levels first, so the merged sample is the same
+     * as if every word had been added to one sampler.
+     * 
+     * @param other
+     *            The sampler to be merged into this one
+     */
+    public void merge(HapaxSampler other)
+    {
+        if (other.level > level)
+        {
+            level = other.level;
+            filter();
+        }
+        for (int i = 0; i < other.hashes.length; i++)
+        {
+            if (other.hashes[i] != 0)
+            {
+                add(other.hashes[i], other.counts[i]);
+            }
+        }
+    }
+}
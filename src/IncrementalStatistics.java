@@ -0,0 +1,213 @@
+import java.io.StringReader;
+
+/**
+ * IncrementalStatistics keeps the statistics of a text that keeps growing,
+ * such as a chat log or a transcript. Text is appended in pieces of any size,
+ * and the statistics of everything appended so far can be read at any time.
+ * Each append only scans the new text, so keeping the statistics up to date
+ * costs O(appended) instead of re-reading the whole text.
+ * 
+ * The tokens are streamed into a StatisticsEngine, which keeps track of the
+ * open sentence and phrase between appends, so a sentence may be split
+ * across any number of appends. Only the characters at the very end of an
+ * append that could still be the start of a longer word are held back until
+ * more text arrives. Line breaks are read as whitespace, the same way
+ * FindAuthor reads files, so the statistics always equal those of the whole
+ * text analyzed at once.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class IncrementalStatistics
+{
+    /**
+     * Counts the totals that the standard statistics are calculated from.
+     */
+    private static class Totals implements StatisticAccumulator
+    {
+        private long words;
+        private long wordLength;
+        private long phrases;
+        private long sentences;
+
+        /**
+         * Counts the word and its length.
+         * 
+         * @param word
+         *            The string of the word token
+         */
+        public void addWord(String word)
+        {
+            words++;
+            wordLength += word.length();
+        }
+
+        /**
+         * Counts the phrase.
+         */
+        public void endPhrase()
+        {
+            phrases++;
+        }
+
+        /**
+         * Counts the sentence.
+         */
+        public void endSentence()
+        {
+            sentences++;
+        }
+
+        /**
+         * Adds the totals of the other accumulator to this one.
+         * 
+         * @param other
+         *            a Totals accumulator
+         */
+        public void merge(StatisticAccumulator other)
+        {
+            Totals o = (Totals) other;
+            words += o.words;
+            wordLength += o.wordLength;
+            phrases += o.phrases;
+            sentences += o.sentences;
+        }
+
+        /**
+         * @return the number of words.
+         */
+        public double getValue()
+        {
+            return words;
+        }
+    }
+
+    private StatisticsEngine engine;
+    private Totals totals;
+    private Vocabulary vocabulary;
+    /**
+     * The characters at the end of the text that have not been scanned yet,
+     * because the next append could continue them as a word.
+     */
+    private String pending;
+
+    /**
+     * Constructor for IncrementalStatistics of an empty text.
+     */
+    public IncrementalStatistics()
+    {
+        engine = new StatisticsEngine();
+        totals = new Totals();
+        engine.register(totals);
+        vocabulary = engine.getVocabulary();
+        pending = "";
+    }
+
+    /**
+     * Appends text to the end of the text analyzed so far.
+     * 
+     * @param text
+     *            The text to be appended
+     */
+    public void append(CharSequence text)
+    {
+        StringBuilder chunk = new StringBuilder(pending.length()
+                + text.length());
+        chunk.append(pending);
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r')
+            {
+                c = ' ';
+            }
+            chunk.append(c);
+        }
+        int end = chunk.length();
+        while (end > 0 && Scanner.isWordPart(chunk.charAt(end - 1)))
+        {
+            end--;
+        }
+        Scanner scanner = new Scanner(new StringReader(chunk
+                .substring(0, end)));
+        Token t = scanner.nextToken();
+        while (!t.getType().equals(Scanner.TOKEN_TYPE.END_OF_FILE))
+        {
+            engine.accept(t);
+            t = scanner.nextToken();
+        }
+        pending = chunk.substring(end);
+    }
+
+    /**
+     * Calculates the statistics of all of the text appended so far, as if the
+     * text ended here. Nothing is changed, so text can still be appended
+     * afterwards. This costs O(1) plus the length of the held back
+     * characters.
+     * 
+     * @return an array of the standard statistics, in the order of the
+     *         StatisticsEngine constants.
+     */
+    public double[] getStatistics()
+    {
+        long words = totals.words;
+        long wordLength = totals.wordLength;
+        long phrases = totals.phrases;
+        long sentences = totals.sentences;
+        long types = vocabulary.getTypeCount();
+        long hapax = vocabulary.getHapaxCount();
+        // the held back characters are word parts and hold no terminators,
+        // so they continue the open phrase or start a new one, and hold at
+        // most one word
+        Scanner scanner = new Scanner(new StringReader(pending));
+        boolean hasTokens = false;
+        Token t = scanner.nextToken();
+        while (!t.getType().equals(Scanner.TOKEN_TYPE.END_OF_FILE))
+        {
+            hasTokens = true;
+            if (t.getType().equals(Scanner.TOKEN_TYPE.WORD))
+            {
+                words++;
+                wordLength += t.getStr().length();
+                int id = vocabulary.getId(t.getStr());
+                int count = 0;
+                if (id != -1)
+                {
+                    count = vocabulary.getCount(id);
+                }
+                if (count == 0)
+                {
+                    types++;
+                    hapax++;
+                }
+                else if (count == 1)
+                {
+                    hapax--;
+                }
+            }
+            t = scanner.nextToken();
+        }
+        if (engine.isPhraseOpen() || hasTokens)
+        {
+            phrases++;
+        }
+        if (engine.isSentenceOpen() || hasTokens)
+        {
+            sentences++;
+        }
+        double[] answer = new double[AuthorProfile.STATISTIC_COUNT];
+        answer[StatisticsEngine.AVERAGE_WORD_LENGTH] = (double) wordLength
+                / words;
+        answer[StatisticsEngine.TYPE_TOKEN_RATIO] = (double) types
+                / (double) words;
+        answer[StatisticsEngine.HAPAX_LEGOMANA] = (double) hapax
+                / (double) words;
+        answer[StatisticsEngine.AVERAGE_WORDS_PER_SENTENCE] = (double) words
+                / (double) sentences;
+        answer[StatisticsEngine.SENTENCE_COMPLEXITY] = (double) phrases
+                / (double) sentences;
+        return answer;
+    }
+}
@@ -0,0 +1,264 @@
+import java.util.Arrays;
+
+/**
+ * An IntIntHashMap maps int keys to int values without boxing either of them.
+ * The keys and values are kept in two parallel arrays and collisions are
+ * resolved by open addressing with linear probing. A key that is not in the
+ * map has the value 0, which makes the map convenient for counting.
+ * 
+ * Integer.MIN_VALUE marks an empty slot and cannot be used as a key.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class IntIntHashMap
+{
+    /**
+     * The key stored in slots that are not in use.
+     */
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    /**
+     * The number of entries at which the arrays are doubled.
+     */
+    private int threshold;
+
+    /**
+     * A visitor is handed every entry of the map by forEach().
+     */
+    public interface EntryVisitor
+    {
+        /**
+         * Called once for each entry of the map.
+         * 
+         * @param key
+         *            The key of the entry
+         * @param value
+         *            The value of the entry
+         */
+        void visit(int key, int value);
+    }
+
+    /**
+     * Constructor for an empty IntIntHashMap with room for a few entries.
+     */
+    public IntIntHashMap()
+    {
+        this(16);
+    }
+
+    /**
+     * Constructor for an empty IntIntHashMap with room for the given number
+     * of entries before it has to grow.
+     * 
+     * @param expectedSize
+     *            The number of entries the map is expected to hold
+     */
+    public IntIntHashMap(int expectedSize)
+    {
+        int capacity = 16;
+        while (capacity / 2 < expectedSize)
+        {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Creates empty arrays of the given capacity.
+     * 
+     * @param capacity
+     *            The number of slots, a power of two
+     */
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        size = 0;
+        threshold = capacity / 2;
+    }
+
+    /**
+     * Spreads the bits of a key so that consecutive keys do not land in
+     * consecutive slots.
+     * 
+     * @param key
+     *            The key to be hashed
+     * @return the mixed hash of the key.
+     */
+    private static int hash(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Finds the slot of a key, or the empty slot where it would be inserted.
+     * 
+     * @param key
+     *            The key to be found
+     * @return the index of the slot.
+     */
+    private int slotOf(int key)
+    {
+        if (key == FREE)
+        {
+            throw new IllegalArgumentException(
+                    "Integer.MIN_VALUE cannot be a key");
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the value of a key.
+     * 
+     * @param key
+     *            The key to be looked up
+     * @return the value of the key, or 0 if the key is not in the map.
+     */
+    public int get(int key)
+    {
+        int slot = slotOf(key);
+        if (keys[slot] == FREE)
+        {
+            return 0;
+        }
+        return values[slot];
+    }
+
+    /**
+     * Checks if a key is in the map.
+     * 
+     * @param key
+     *            The key to be checked
+     * @return true if the key has been put in the map, or false otherwise.
+     */
+    public boolean containsKey(int key)
+    {
+        return keys[slotOf(key)] != FREE;
+    }
+
+    /**
+     * Sets the value of a key.
+     * 
+     * @param key
+     *            The key to be set
+     * @param value
+     *            The new value of the key
+     */
+    public void put(int key, int value)
+    {
+        int slot = slotOf(key);
+        if (keys[slot] == FREE)
+        {
+            slot = insert(slot, key);
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Adds to the value of a key. A key that is not in the map starts at 0.
+     * 
+     * @param key
+     *            The key to be changed
+     * @param delta
+     *            The amount added to the value
+     * @return the new value of the key.
+     */
+    public int add(int key, int delta)
+    {
+        int slot = slotOf(key);
+        if (keys[slot] == FREE)
+        {
+            slot = insert(slot, key);
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Adds one to the value of a key.
+     * 
+     * @param key
+     *            The key to be counted
+     * @return the new value of the key.
+     */
+    public int increment(int key)
+    {
+        return add(key, 1);
+    }
+
+    /**
+     * Puts a new key into an empty slot, growing the arrays if the map has
+     * become too full.
+     * 
+     * @param slot
+     *            The empty slot found for the key
+     * @param key
+     *            The key to be inserted
+     * @return the slot the key ended up in.
+     */
+    private int insert(int slot, int key)
+    {
+        if (size >= threshold)
+        {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++)
+            {
+                if (oldKeys[i] != FREE)
+                {
+                    int s = slotOf(oldKeys[i]);
+                    keys[s] = oldKeys[i];
+                    values[s] = oldValues[i];
+                    size++;
+                }
+            }
+            slot = slotOf(key);
+        }
+        keys[slot] = key;
+        values[slot] = 0;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     * 
+     * @return the number of entries.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Hands every entry of the map to the visitor, in no particular order.
+     * 
+     * @param visitor
+     *            The visitor to be called for each entry
+     */
+    public void forEach(EntryVisitor visitor)
+    {
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] != FREE)
+            {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JfrMetricsReporter turns the measurements of the pipeline into Java Flight
+ * Recorder events, so that they show up in a recording next to the rest of
+ * the JVM. Events are only built while a recording has them enabled, so an
+ * installed JfrMetricsReporter costs little when nothing is recording. The
+ * measurements can also be passed on to another reporter, such as a
+ * MetricsRegistry.
+ * 
+ * The events are named findauthor.Stage, findauthor.Counter and
+ * findauthor.Tokens. JFR needs JDK 8u262 or later.
+ * 
+ * Every event is an instant, recorded when the measurement is reported, and
+ * has no JFR duration. A stage event is emitted after its stage has
+ * finished and carries the time of the stage as a plain number of
+ * nanoseconds. That time leaves out nested stages, such as scanning during
+ * STATISTICS, and for SCAN it is summed over many calls, so it could not be
+ * a span of the timeline anyway. JFR duration thresholds and timeline
+ * placement therefore do not apply to these events; filter on the field
+ * instead.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class JfrMetricsReporter implements MetricsReporter
+{
+    /**
+     * The reporter that measurements are passed on to, or null.
+     */
+    private MetricsReporter next;
+
+    /**
+     * One document or file having passed through one stage of the pipeline,
+     * recorded as an instant when the stage is reported.
+     */
+    @Name("findauthor.Stage")
+    @Label("Pipeline Stage")
+    @Category("FindAuthor")
+    @Description("Instant event for a finished stage; the stage time is in "
+            + "the Stage Nanoseconds field, not the event duration")
+    static class StageEvent extends Event
+    {
+        @Label("Stage")
+        String stage;
+        @Label("Stage Nanoseconds")
+        long stageNanos;
+        @Label("Items")
+        long items;
+    }
+
+    /**
+     * An addition to one of the counters of the pipeline.
+     */
+    @Name("findauthor.Counter")
+    @Label("Pipeline Counter")
+    @Category("FindAuthor")
+    static class CounterEvent extends Event
+    {
+        @Label("Counter")
+        String counter;
+        @Label("Amount")
+        long amount;
+    }
+
+    /**
+     * The tokens of one type returned by one Scanner.
+     */
+    @Name("findauthor.Tokens")
+    @Label("Scanned Tokens")
+    @Category("FindAuthor")
+    static class TokensEvent extends Event
+    {
+        @Label("Token Type")
+        String type;
+        @Label("Count")
+        long count;
+    }
+
+    /**
+     * Constructor for a JfrMetricsReporter that only emits events.
+     */
+    public JfrMetricsReporter()
+    {
+        this(null);
+    }
+
+    /**
+     * Constructor for a JfrMetricsReporter that emits events and passes every
+     * measurement on to another reporter.
+     * 
+     * @param next
+     *            The reporter to pass measurements on to, or null
+     */
+    public JfrMetricsReporter(MetricsReporter next)
+    {
+        this.next = next;
+    }
+
+    /**
+     * Emits an instant stage event.
+     * 
+     * @param stage
+     *            The stage that was completed
+     * @param nanos
+     *            The time spent in the stage, in nanoseconds
+     * @param items
+     *            The number of things the stage handled
+     */
+    public void stageCompleted(PipelineMetrics.Stage stage, long nanos,
+            long items)
+    {
+        StageEvent e = new StageEvent();
+        if (e.isEnabled())
+        {
+            e.stage = stage.name();
+            e.stageNanos = nanos;
+            e.items = items;
+            e.commit();
+        }
+        if (next != null)
+        {
+            next.stageCompleted(stage, nanos, items);
+        }
+    }
+
+    /**
+     * Emits a counter event.
+     * 
+     * @param counter
+     *            The counter to add to
+     * @param amount
+     *            The amount to add
+     */
+    public void counted(PipelineMetrics.Counter counter, long amount)
+    {
+        CounterEvent e = new CounterEvent();
+        if (e.isEnabled())
+        {
+            e.counter = counter.name();
+            e.amount = amount;
+            e.commit();
+        }
+        if (next != null)
+        {
+            next.counted(counter, amount);
+        }
+    }
+
+    /**
+     * Emits a token event.
+     * 
+     * @param type
+     *            The type of the tokens
+     * @param count
+     *            The number of tokens of the type
+     */
+    public void tokensScanned(Scanner.TOKEN_TYPE type, long count)
+    {
+        TokensEvent e = new TokensEvent();
+        if (e.isEnabled())
+        {
+            e.type = type.name();
+            e.count = count;
+            e.commit();
+        }
+        if (next != null)
+        {
+            next.tokensScanned(type, count);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A LatencyHistogram counts latencies in buckets that double in size, so that
+ * bucket k holds every latency of at least 2^(k-1) and less than 2^k
+ * nanoseconds, and bucket 0 holds latencies of 0. Recording a latency is a
+ * few atomic additions, so one histogram can be shared by every thread.
+ * Percentiles are only known to within a factor of two, and are given as the
+ * upper end of their bucket.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class LatencyHistogram
+{
+    /**
+     * The number of buckets, enough for any non-negative long.
+     */
+    public static final int BUCKET_COUNT = 64;
+
+    private AtomicLongArray buckets;
+    private AtomicLong count;
+    private AtomicLong totalNanos;
+    private AtomicLong maxNanos;
+
+    /**
+     * Constructor for the LatencyHistogram class. The histogram starts empty.
+     */
+    public LatencyHistogram()
+    {
+        buckets = new AtomicLongArray(BUCKET_COUNT);
+        count = new AtomicLong();
+        totalNanos = new AtomicLong();
+        maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Records one latency. Negative latencies, which a clock can give for
+     * very short stages, are recorded as 0.
+     * 
+     * @param nanos
+     *            The latency in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos))
+        {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Finds the bucket of a latency.
+     * 
+     * @param nanos
+     *            The latency in nanoseconds, at least 0
+     * @return the index of the bucket that holds the latency.
+     */
+    private static int bucketOf(long nanos)
+    {
+        return 64 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     * 
+     * @return the number of latencies.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of every latency recorded.
+     * 
+     * @return the total in nanoseconds.
+     */
+    public long getTotalNanos()
+    {
+        return totalNanos.get();
+    }
+
+    /**
+     * Returns the largest latency recorded.
+     * 
+     * @return the largest latency in nanoseconds, or 0 if there are none.
+     */
+    public long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the number of latencies in one bucket.
+     * 
+     * @param bucket
+     *            The index of the bucket
+     * @return the number of latencies in the bucket.
+     */
+    public long getBucketCount(int bucket)
+    {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Estimates a percentile of the recorded latencies.
+     * 
+     * @param percentile
+     *            The percentile, from 0 to 100
+     * @return the upper end of the bucket that holds the percentile, in
+     *         nanoseconds, or 0 if there are no latencies.
+     */
+    public long getPercentile(double percentile)
+    {
+        long total = count.get();
+        if (total == 0)
+        {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += buckets.get(i);
+            if (seen >= rank && seen > 0)
+            {
+                if (i == BUCKET_COUNT - 1)
+                {
+                    return Long.MAX_VALUE;
+                }
+                return Math.min((1L << i) - 1, maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Describes the histogram by its count, mean, median, 99th percentile
+     * and maximum, in microseconds.
+     * 
+     * @return a one line summary of the histogram.
+     */
+    public String toString()
+    {
+        long n = getCount();
+        double mean = 0;
+        if (n > 0)
+        {
+            mean = getTotalNanos() / (double) n;
+        }
+        return String.format("count=%d mean=%.1fus p50<=%.1fus p99<=%.1fus "
+                + "max=%.1fus", n, mean / 1e3, getPercentile(50) / 1e3,
+                getPercentile(99) / 1e3, getMaxNanos() / 1e3);
+    }
+}
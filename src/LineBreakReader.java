@@ -0,0 +1,74 @@
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A LineBreakReader wraps another reader and replaces every line break
+ * character ('\n' or '\r') with a space as the characters are read. The
+ * scanner only treats spaces as whitespace, so this lets a file be scanned
+ * straight from disk the same way as when its lines were joined with spaces,
+ * without ever holding the whole file in memory.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class LineBreakReader extends FilterReader
+{
+    /**
+     * Constructor for the LineBreakReader class.
+     * 
+     * @param in
+     *            The reader whose line breaks are replaced
+     */
+    public LineBreakReader(Reader in)
+    {
+        super(in);
+    }
+
+    /**
+     * Reads a single character, replacing a line break with a space.
+     * 
+     * @return the character read, or -1 if the end of the stream is reached.
+     * @throws IOException
+     *             if the underlying reader fails.
+     */
+    public int read() throws IOException
+    {
+        int c = in.read();
+        if (c == '\n' || c == '\r')
+        {
+            return ' ';
+        }
+        return c;
+    }
+
+    /**
+     * Reads characters into a portion of an array, replacing line breaks with
+     * spaces.
+     * 
+     * @param cbuf
+     *            The destination buffer
+     * @param off
+     *            The offset at which to start storing characters
+     * @param len
+     *            The maximum number of characters to read
+     * @return the number of characters read, or -1 if the end of the stream is
+     *         reached.
+     * @throws IOException
+     *             if the underlying reader fails.
+     */
+    public int read(char[] cbuf, int off, int len) throws IOException
+    {
+        int read = in.read(cbuf, off, len);
+        for (int i = off; i < off + read; i++)
+        {
+            if (cbuf[i] == '\n' || cbuf[i] == '\r')
+            {
+                cbuf[i] = ' ';
+            }
+        }
+        return read;
+    }
+}
@@ -1,6 +1,10 @@
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The main class tests the nextToken() method and the parseDocument() method in
@@ -8,9 +12,9 @@ import java.util.ArrayList;
  * the scanner.nextToken() method is working, the class prints all of the tokens
  * in the class. To verify if the parseDocument() method is working, the class
  * prints all of the tokens in each sentence, for each sentence. Finally, this
- * class tests the findAuthor class by finding the author of three mystery
- * texts. The correct author of these mystery texts is commented above the
- * method which does so.
+ * class tests the BatchClassifier class by finding the authors of the mystery
+ * texts in one batch. The correct author of these mystery texts is commented
+ * above the method which does so.
  * 
  * @author Aashish Jain
  * 
@@ -125,20 +129,169 @@ public class Main
         statFiles.add("src/mark.twain.stats");
         statFiles.add("src/sir.arthur.conan.doyle.stats");
         statFiles.add("src/william.shakespeare.stats");
-        FindAuthor f1 = new FindAuthor("src/mystery1.txt", statFiles);
-        FindAuthor f2 = new FindAuthor("src/mystery2.txt", statFiles);
-        FindAuthor f3 = new FindAuthor("src/mystery3.txt", statFiles);
-        FindAuthor f4 = new FindAuthor("src/mystery4.txt", statFiles);
-        FindAuthor f5 = new FindAuthor("src/mystery5.txt", statFiles);
+        ArrayList<String> mysteryFiles = new ArrayList<String>();
+        mysteryFiles.add("src/mystery1.txt");
+        mysteryFiles.add("src/mystery2.txt");
+        mysteryFiles.add("src/mystery3.txt");
+        mysteryFiles.add("src/mystery4.txt");
+        mysteryFiles.add("src/mystery5.txt");
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime
+                .getRuntime().availableProcessors());
+        BatchClassifier classifier = new BatchClassifier(
+                AuthorProfile.loadAll(statFiles), FindAuthor.defaultWeights(),
+                executor);
         /**
          * The Author of Mystery 1 should be: Jane Austen. The Author of Mystery
          * 2 should be: Lewis Carroll. The Author of Mystery 3 should be:
          * Charles Dickens.
          */
-        System.out.println("The Author of MysteryText 1 is " + f1.findAuthor());
-        System.out.println("The Author of MysteryText 2 is " + f2.findAuthor());
-        System.out.println("The Author of MysteryText 3 is " + f3.findAuthor());
-        System.out.println("The Author of MysteryText 4 is " + f4.findAuthor());
-        System.out.println("The Author of MysteryText 5 is " + f5.findAuthor());
+        List<String> authors = classifier.classifyAll(mysteryFiles);
+        executor.shutdown();
+        for (int i = 0; i < authors.size(); i++)
+        {
+            System.out.println("The Author of MysteryText " + (i + 1) + " is "
+                    + authors.get(i));
+        }
+
+        /**
+         * Ranking test. Jane Austen should be ranked first for mystery 1, and
+         * the margins show how clearly she is ahead of the next authors.
+         */
+        System.out.println("\n Ranking Test: \n");
+        for (RankedAuthor a : new FindAuthor(mysteryFiles.get(0), statFiles)
+                .rankAuthors(3))
+        {
+            System.out.println(a);
+        }
+
+        /**
+         * Profile index test. The index should find the same five closest
+         * profiles as comparing every profile, also when most profiles are
+         * equally far away: 20,000 copies of one profile, and 200,000
+         * profiles that differ only in a whole number of words per sentence.
+         */
+        System.out.println("\n Profile Index Test: \n");
+        List<AuthorProfile> profiles = AuthorProfile.loadAll(statFiles);
+        List<double[]> queries = new ArrayList<double[]>();
+        for (String mystery : mysteryFiles)
+        {
+            queries.add(FindAuthor.getStatistics(mystery));
+        }
+        checkIndex("Distinct profiles", profiles, queries);
+        double[] base = new double[AuthorProfile.STATISTIC_COUNT];
+        for (int k = 0; k < base.length; k++)
+        {
+            base[k] = profiles.get(0).getStatistic(k);
+        }
+        List<AuthorProfile> copies = new ArrayList<AuthorProfile>();
+        for (int i = 0; i < 20000; i++)
+        {
+            copies.add(new AuthorProfile("copy " + i, base));
+        }
+        checkIndex("Identical profiles", copies, queries);
+        List<AuthorProfile> coarse = new ArrayList<AuthorProfile>();
+        for (int i = 0; i < 200000; i++)
+        {
+            double[] stats = base.clone();
+            stats[StatisticsEngine.AVERAGE_WORDS_PER_SENTENCE] = i % 40;
+            coarse.add(new AuthorProfile("coarse " + i, stats));
+        }
+        checkIndex("Coarse profiles", coarse, queries);
+
+        /**
+         * Approximate statistics test. The estimated type-token and hapax
+         * legomana ratios should be within a few percent of the exact ratios.
+         */
+        System.out.println("\n Approximate Statistics Test: \n");
+        for (String mystery : mysteryFiles)
+        {
+            double[] exact = FindAuthor.getStatistics(mystery);
+            StatisticsEngine approximate = StatisticsEngine.approximate(14,
+                    4096);
+            Reader reader = FindAuthor.openDocument(mystery);
+            approximate.run(new Scanner(reader));
+            reader.close();
+            printEstimate(mystery + " Type Token Ratio",
+                    exact[StatisticsEngine.TYPE_TOKEN_RATIO],
+                    approximate.getValue(StatisticsEngine.TYPE_TOKEN_RATIO));
+            printEstimate(mystery + " Hapax Legomana Ratio",
+                    exact[StatisticsEngine.HAPAX_LEGOMANA],
+                    approximate.getValue(StatisticsEngine.HAPAX_LEGOMANA));
+        }
+
+        /**
+         * Metrics test. Finding the author of mystery 1 should count every
+         * token, phrase and sentence of it, load 13 profiles and compare the
+         * document against all of them.
+         */
+        System.out.println("\n Metrics Test: \n");
+        MetricsRegistry metrics = new MetricsRegistry();
+        PipelineMetrics.setReporter(metrics);
+        new FindAuthor(mysteryFiles.get(0), statFiles).findAuthor();
+        PipelineMetrics.setReporter(null);
+        for (PipelineMetrics.Counter c : PipelineMetrics.Counter.values())
+        {
+            System.out.println(c + " : " + metrics.getCount(c));
+        }
+        for (Scanner.TOKEN_TYPE t : Scanner.TOKEN_TYPE.values())
+        {
+            System.out.println(t + " tokens : " + metrics.getTokenCount(t));
+        }
+        for (PipelineMetrics.Stage s : PipelineMetrics.Stage.values())
+        {
+            System.out.println(s + " : " + metrics.getItems(s) + " items in "
+                    + metrics.getLatencies(s).getCount() + " runs");
+        }
+    }
+
+    /**
+     * Checks that a ProfileIndex finds the same five closest profiles as
+     * comparing every profile, for every query, and prints the result.
+     * 
+     * @param label
+     *            The name of the set of profiles
+     * @param profiles
+     *            The profiles to be indexed
+     * @param queries
+     *            The statistics of the documents to look up
+     */
+    private static void checkIndex(String label, List<AuthorProfile> profiles,
+            List<double[]> queries)
+    {
+        double[] weights = FindAuthor.defaultWeights();
+        ProfileIndex index = new ProfileIndex(profiles, weights);
+        boolean same = true;
+        for (double[] query : queries)
+        {
+            List<AuthorProfile> found = index.nearest(query, 5);
+            List<RankedAuthor> expected = FindAuthor.rank(query, profiles,
+                    weights, 5);
+            same = same && found.size() == expected.size();
+            for (int i = 0; same && i < found.size(); i++)
+            {
+                same = found.get(i) == expected.get(i).getProfile();
+            }
+        }
+        System.out.println(label + " (" + profiles.size()
+                + ") match comparing every profile : " + same);
+    }
+
+    /**
+     * Prints an exact statistic next to its estimate and the relative error
+     * of the estimate.
+     * 
+     * @param label
+     *            The name of the statistic
+     * @param exact
+     *            The exact value
+     * @param estimate
+     *            The estimated value
+     */
+    private static void printEstimate(String label, double exact,
+            double estimate)
+    {
+        double error = Math.abs(estimate - exact) / exact * 100;
+        System.out.println(label + " : " + exact + " ~ " + estimate + " ("
+                + String.format("%.2f", error) + "% error)");
     }
 }
@@ -0,0 +1,153 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A MetricsRegistry is a MetricsReporter that keeps its measurements in
+ * memory: a total for every counter and every token type, and a
+ * LatencyHistogram for every stage. It can be read at any time, including
+ * while documents are still being analyzed.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class MetricsRegistry implements MetricsReporter
+{
+    private AtomicLongArray counters;
+    private AtomicLongArray tokens;
+    private AtomicLongArray stageItems;
+    private LatencyHistogram[] latencies;
+
+    /**
+     * Constructor for the MetricsRegistry class. Every total starts at 0.
+     */
+    public MetricsRegistry()
+    {
+        counters = new AtomicLongArray(PipelineMetrics.Counter.values().length);
+        tokens = new AtomicLongArray(Scanner.TOKEN_TYPE.values().length);
+        int stages = PipelineMetrics.Stage.values().length;
+        stageItems = new AtomicLongArray(stages);
+        latencies = new LatencyHistogram[stages];
+        for (int i = 0; i < stages; i++)
+        {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the time of a stage in its histogram.
+     * 
+     * @param stage
+     *            The stage that was completed
+     * @param nanos
+     *            The time spent in the stage, in nanoseconds
+     * @param items
+     *            The number of things the stage handled
+     */
+    public void stageCompleted(PipelineMetrics.Stage stage, long nanos,
+            long items)
+    {
+        latencies[stage.ordinal()].record(nanos);
+        stageItems.addAndGet(stage.ordinal(), items);
+    }
+
+    /**
+     * Adds to the total of a counter.
+     * 
+     * @param counter
+     *            The counter to add to
+     * @param amount
+     *            The amount to add
+     */
+    public void counted(PipelineMetrics.Counter counter, long amount)
+    {
+        counters.addAndGet(counter.ordinal(), amount);
+    }
+
+    /**
+     * Adds to the total of a token type.
+     * 
+     * @param type
+     *            The type of the tokens
+     * @param count
+     *            The number of tokens of the type
+     */
+    public void tokensScanned(Scanner.TOKEN_TYPE type, long count)
+    {
+        tokens.addAndGet(type.ordinal(), count);
+    }
+
+    /**
+     * Returns the total of a counter.
+     * 
+     * @param counter
+     *            The counter to be read
+     * @return the total so far.
+     */
+    public long getCount(PipelineMetrics.Counter counter)
+    {
+        return counters.get(counter.ordinal());
+    }
+
+    /**
+     * Returns the number of tokens of a type that have been scanned.
+     * 
+     * @param type
+     *            The token type to be read
+     * @return the number of tokens so far.
+     */
+    public long getTokenCount(Scanner.TOKEN_TYPE type)
+    {
+        return tokens.get(type.ordinal());
+    }
+
+    /**
+     * Returns the number of things a stage has handled, summed over every
+     * time it was completed.
+     * 
+     * @param stage
+     *            The stage to be read
+     * @return the number of items so far.
+     */
+    public long getItems(PipelineMetrics.Stage stage)
+    {
+        return stageItems.get(stage.ordinal());
+    }
+
+    /**
+     * Returns the latencies of a stage.
+     * 
+     * @param stage
+     *            The stage to be read
+     * @return the histogram of the stage, which keeps being updated.
+     */
+    public LatencyHistogram getLatencies(PipelineMetrics.Stage stage)
+    {
+        return latencies[stage.ordinal()];
+    }
+
+    /**
+     * Describes every counter, token type and stage, one per line.
+     * 
+     * @return a summary of the measurements so far.
+     */
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (PipelineMetrics.Counter c : PipelineMetrics.Counter.values())
+        {
+            sb.append(c).append(": ").append(getCount(c)).append('\n');
+        }
+        for (Scanner.TOKEN_TYPE t : Scanner.TOKEN_TYPE.values())
+        {
+            sb.append(t).append(" tokens: ").append(getTokenCount(t))
+                    .append('\n');
+        }
+        for (PipelineMetrics.Stage s : PipelineMetrics.Stage.values())
+        {
+            sb.append(s).append(": items=").append(getItems(s)).append(' ')
+                    .append(getLatencies(s)).append('\n');
+        }
+        return sb.toString();
+    }
+}
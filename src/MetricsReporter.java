@@ -0,0 +1,46 @@
+/**
+ * A MetricsReporter receives the measurements taken by the analysis pipeline
+ * while it is installed with PipelineMetrics.setReporter(). Measurements are
+ * reported from whichever thread took them, so a reporter must be safe to
+ * call from several threads at once.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public interface MetricsReporter
+{
+    /**
+     * Reports that one document or file has passed through a stage.
+     * 
+     * @param stage
+     *            The stage that was completed
+     * @param nanos
+     *            The time spent in the stage, in nanoseconds
+     * @param items
+     *            The number of things the stage handled, such as tokens for
+     *            scanning or profiles for profile loading
+     */
+    void stageCompleted(PipelineMetrics.Stage stage, long nanos, long items);
+
+    /**
+     * Adds to one of the counters of the pipeline.
+     * 
+     * @param counter
+     *            The counter to add to
+     * @param amount
+     *            The amount to add
+     */
+    void counted(PipelineMetrics.Counter counter, long amount);
+
+    /**
+     * Reports the tokens of one type that a Scanner has returned.
+     * 
+     * @param type
+     *            The type of the tokens
+     * @param count
+     *            The number of tokens of the type
+     */
+    void tokensScanned(Scanner.TOKEN_TYPE type, long count);
+}
@@ -0,0 +1,165 @@
+/**
+ * Accumulates the character n-grams of the words of a document into a vector
+ * of fixed size, using the hashing trick: every n-gram is hashed straight to a
+ * position of an int array and counted there, so no n-gram is ever stored as
+ * a String and memory stays the same however many different n-grams there
+ * are. N-grams that hash to the same position are counted together.
+ * 
+ * Each word is padded with a space on both sides before it is cut into
+ * n-grams, so the n-grams also capture how words start and end; with n = 3,
+ * "the" gives " th", "the" and "he ".
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class NGramAccumulator implements StatisticAccumulator
+{
+    private int n;
+    private int bits;
+    private int[] counts;
+    private long total;
+
+    /**
+     * Constructor for the NGramAccumulator class.
+     * 
+     * @param n
+     *            The number of characters in an n-gram, at least 1
+     * @param bits
+     *            The vector has 2^bits positions, from 1 to 24
+     */
+    public NGramAccumulator(int n, int bits)
+    {
+        if (n < 1 || bits < 1 || bits > 24)
+        {
+            throw new IllegalArgumentException("n must be at least 1 and "
+                    + "bits from 1 to 24");
+        }
+        this.n = n;
+        this.bits = bits;
+        counts = new int[1 << bits];
+    }
+
+    /**
+     * Counts every n-gram of the padded word.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    public void addWord(String word)
+    {
+        int padded = word.length() + 2;
+        for (int start = 0; start + n <= padded; start++)
+        {
+            long h = 0xcbf29ce484222325L;
+            for (int i = start; i < start + n; i++)
+            {
+                char c = ' ';
+                if (i > 0 && i < padded - 1)
+                {
+                    c = word.charAt(i - 1);
+                }
+                h ^= c;
+                h *= 0x100000001b3L;
+            }
+            counts[(int) (HyperLogLog.mix(h) >>> (64 - bits))]++;
+            total++;
+        }
+    }
+
+    /**
+     * Phrases do not affect the n-grams.
+     */
+    public void endPhrase()
+    {
+    }
+
+    /**
+     * Sentences do not affect the n-grams.
+     */
+    public void endSentence()
+    {
+    }
+
+    /**
+     * Adds the counts of another accumulator to this one.
+     * 
+     * @param other
+     *            an NGramAccumulator with the same n and bits
+     */
+    public void merge(StatisticAccumulator other)
+    {
+        NGramAccumulator o = (NGramAccumulator) other;
+        if (o.n != n || o.bits != bits)
+        {
+            throw new IllegalArgumentException("n-gram sizes do not match");
+        }
+        for (int i = 0; i < counts.length; i++)
+        {
+            counts[i] += o.counts[i];
+        }
+        total += o.total;
+    }
+
+    /**
+     * Returns the number of n-grams counted. The n-gram vector itself is read
+     * with getFrequencies().
+     * 
+     * @return the total number of n-grams.
+     */
+    public double getValue()
+    {
+        return total;
+    }
+
+    /**
+     * returns the number of characters in an n-gram.
+     * 
+     * @return n.
+     */
+    public int getN()
+    {
+        return n;
+    }
+
+    /**
+     * returns the size of the vector as a power of two.
+     * 
+     * @return the number of bits of a position in the vector.
+     */
+    public int getBits()
+    {
+        return bits;
+    }
+
+    /**
+     * Returns the count of every position of the vector.
+     * 
+     * @return a copy of the counts.
+     */
+    public int[] getCounts()
+    {
+        return counts.clone();
+    }
+
+    /**
+     * Returns the share of all n-grams counted at every position of the
+     * vector, so that documents of different lengths can be compared.
+     * 
+     * @return the frequencies, which add up to 1, or all 0 if no n-gram was
+     *         counted.
+     */
+    public float[] getFrequencies()
+    {
+        float[] frequencies = new float[counts.length];
+        if (total > 0)
+        {
+            for (int i = 0; i < counts.length; i++)
+            {
+                frequencies[i] = (float) ((double) counts[i] / total);
+            }
+        }
+        return frequencies;
+    }
+}
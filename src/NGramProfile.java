@@ -0,0 +1,399 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An NGramProfile holds the hashed character n-gram frequencies of an author,
+ * as made by an NGramAccumulator. It is stored next to the author's .stats
+ * file, in a binary .ngrams file with the same name, and documents are ranked
+ * against n-gram profiles by cosine or L1 distance.
+ * 
+ * The file is a magic number and a version, then n, the number of bits of a
+ * position, the author name, and the frequency of every position as a float.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public final class NGramProfile
+{
+    /**
+     * The extension of the files that hold n-gram profiles.
+     */
+    public static final String EXTENSION = ".ngrams";
+    /**
+     * The first four bytes of an n-gram profile, "FANG".
+     */
+    private static final int MAGIC = 0x46414e47;
+    private static final int VERSION = 1;
+
+    /**
+     * The ways two frequency vectors can be compared.
+     */
+    public static enum Metric
+    {
+        COSINE, L1
+    };
+
+    private String name;
+    private int n;
+    private int bits;
+    private float[] frequencies;
+    /**
+     * The Euclidean length of the frequencies, kept for the cosine distance.
+     */
+    private double norm;
+
+    /**
+     * Constructor for the NGramProfile class.
+     * 
+     * @param name
+     *            The name of the author
+     * @param n
+     *            The number of characters in an n-gram
+     * @param bits
+     *            The vector has 2^bits positions
+     * @param frequencies
+     *            The frequency of every position of the vector
+     */
+    public NGramProfile(String name, int n, int bits, float[] frequencies)
+    {
+        if (frequencies.length != 1 << bits)
+        {
+            throw new IllegalArgumentException("expected " + (1 << bits)
+                    + " frequencies, not " + frequencies.length);
+        }
+        this.name = name;
+        this.n = n;
+        this.bits = bits;
+        this.frequencies = frequencies.clone();
+        norm = norm(this.frequencies);
+    }
+
+    /**
+     * Reads an n-gram profile from a file.
+     * 
+     * @param file
+     *            The path of the .ngrams file
+     * @return the profile in the file.
+     * @throws IOException
+     *             if the file is missing or is not an n-gram profile.
+     */
+    public static NGramProfile load(String file) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file)));
+        try
+        {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            {
+                throw new IOException(file + " is not an n-gram profile");
+            }
+            int n = in.readInt();
+            int bits = in.readInt();
+            if (n < 1 || bits < 1 || bits > 24)
+            {
+                throw new IOException(file + " has bad n-gram sizes");
+            }
+            String name = in.readUTF();
+            float[] frequencies = new float[1 << bits];
+            for (int i = 0; i < frequencies.length; i++)
+            {
+                frequencies[i] = in.readFloat();
+            }
+            return new NGramProfile(name, n, bits, frequencies);
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads the n-gram profiles of a list of files.
+     * 
+     * @param files
+     *            The paths of the .ngrams files
+     * @return an ArrayList of the profiles, in the order of the files.
+     * @throws IOException
+     *             if a file is missing or is not an n-gram profile.
+     */
+    public static ArrayList<NGramProfile> loadAll(List<String> files)
+            throws IOException
+    {
+        ArrayList<NGramProfile> answer = new ArrayList<NGramProfile>();
+        for (String file : files)
+        {
+            answer.add(load(file));
+        }
+        return answer;
+    }
+
+    /**
+     * Writes this profile to a file.
+     * 
+     * @param file
+     *            The file to write, usually named after the author's .stats
+     *            file with the .ngrams extension
+     * @throws IOException
+     *             if the file cannot be written.
+     */
+    public void save(File file) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file)));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(bits);
+            out.writeUTF(name);
+            for (float f : frequencies)
+            {
+                out.writeFloat(f);
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads a document and finds its n-gram frequencies.
+     * 
+     * @param docFile
+     *            The file path of the document
+     * @param n
+     *            The number of characters in an n-gram
+     * @param bits
+     *            The vector has 2^bits positions
+     * @return the frequency of every position of the vector.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public static float[] analyze(String docFile, int n, int bits)
+            throws IOException
+    {
+        NGramAccumulator ngrams = new NGramAccumulator(n, bits);
+        StatisticsEngine engine = new StatisticsEngine();
+        engine.register(ngrams);
+        Reader reader = FindAuthor.openDocument(docFile);
+        try
+        {
+            engine.run(new Scanner(reader));
+        }
+        finally
+        {
+            reader.close();
+        }
+        return ngrams.getFrequencies();
+    }
+
+    /**
+     * returns the name of the author.
+     * 
+     * @return the author's name.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * returns the number of characters in an n-gram.
+     * 
+     * @return n.
+     */
+    public int getN()
+    {
+        return n;
+    }
+
+    /**
+     * returns the size of the vector as a power of two.
+     * 
+     * @return the number of bits of a position in the vector.
+     */
+    public int getBits()
+    {
+        return bits;
+    }
+
+    /**
+     * returns the frequency of one position of the vector.
+     * 
+     * @param index
+     *            The position in the vector
+     * @return the frequency at that position.
+     */
+    public float getFrequency(int index)
+    {
+        return frequencies[index];
+    }
+
+    /**
+     * Calculates the distance to the n-gram frequencies of a document.
+     * 
+     * @param doc
+     *            The frequencies of the document, of the same size
+     * @param metric
+     *            The way to compare the vectors
+     * @return the distance, from 0 for the same frequencies up to 1 for
+     *         cosine and 2 for L1.
+     */
+    public double distanceTo(float[] doc, Metric metric)
+    {
+        if (metric == Metric.COSINE)
+        {
+            return cosineDistance(doc, norm(doc));
+        }
+        return l1Distance(doc);
+    }
+
+    /**
+     * Calculates one minus the cosine of the angle to a document's vector.
+     * 
+     * @param doc
+     *            The frequencies of the document
+     * @param docNorm
+     *            The Euclidean length of the document's frequencies
+     * @return the cosine distance, or 1 if either vector is all 0.
+     */
+    private double cosineDistance(float[] doc, double docNorm)
+    {
+        checkSize(doc);
+        if (norm == 0 || docNorm == 0)
+        {
+            return 1;
+        }
+        float[] f = frequencies;
+        double dot = 0;
+        for (int i = 0; i < f.length; i++)
+        {
+            dot += f[i] * doc[i];
+        }
+        return 1 - dot / (norm * docNorm);
+    }
+
+    /**
+     * Calculates the sum of the absolute differences to a document's vector.
+     * 
+     * @param doc
+     *            The frequencies of the document
+     * @return the L1 distance.
+     */
+    private double l1Distance(float[] doc)
+    {
+        checkSize(doc);
+        float[] f = frequencies;
+        double total = 0;
+        for (int i = 0; i < f.length; i++)
+        {
+            total += Math.abs(f[i] - doc[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Checks that a document's vector has the size of this profile.
+     * 
+     * @param doc
+     *            The frequencies of the document
+     */
+    private void checkSize(float[] doc)
+    {
+        if (doc.length != frequencies.length)
+        {
+            throw new IllegalArgumentException("the document has "
+                    + doc.length + " frequencies, the profile "
+                    + frequencies.length);
+        }
+    }
+
+    /**
+     * Calculates the Euclidean length of a vector.
+     * 
+     * @param v
+     *            The vector
+     * @return the square root of the sum of its squares.
+     */
+    private static double norm(float[] v)
+    {
+        double total = 0;
+        for (int i = 0; i < v.length; i++)
+        {
+            total += v[i] * v[i];
+        }
+        return Math.sqrt(total);
+    }
+
+    /**
+     * Ranks the k profiles closest to the n-gram frequencies of a document.
+     * Equally close profiles keep their order in the list.
+     * 
+     * @param doc
+     *            The frequencies of the document
+     * @param profiles
+     *            The profiles to compare the document to
+     * @param metric
+     *            The way to compare the vectors
+     * @param k
+     *            The number of profiles to rank
+     * @return the min(k, profiles.size()) closest profiles, closest first.
+     */
+    public static List<NGramProfile> rank(float[] doc,
+            List<NGramProfile> profiles, Metric metric, int k)
+    {
+        double docNorm = norm(doc);
+        final double[] distances = new double[profiles.size()];
+        ArrayList<Integer> order = new ArrayList<Integer>();
+        for (int i = 0; i < profiles.size(); i++)
+        {
+            NGramProfile p = profiles.get(i);
+            if (metric == Metric.COSINE)
+            {
+                distances[i] = p.cosineDistance(doc, docNorm);
+            }
+            else
+            {
+                distances[i] = p.l1Distance(doc);
+            }
+            order.add(i);
+        }
+        // the sort is stable, so equal distances keep their order
+        Collections.sort(order, new Comparator<Integer>()
+        {
+            public int compare(Integer a, Integer b)
+            {
+                return Double.compare(distances[a], distances[b]);
+            }
+        });
+        ArrayList<NGramProfile> answer = new ArrayList<NGramProfile>();
+        for (int i = 0; i < Math.min(k, order.size()); i++)
+        {
+            answer.add(profiles.get(order.get(i)));
+        }
+        return answer;
+    }
+
+    /**
+     * Overrides java.lang.Object.toString to print the name of the author.
+     */
+    public String toString()
+    {
+        return name;
+    }
+}
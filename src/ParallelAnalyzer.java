@@ -0,0 +1,214 @@
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * The ParallelAnalyzer calculates the statistics of a large document on a
+ * ForkJoinPool. The text is split in half again and again until the pieces
+ * are small enough, always just after a sentence terminator ('.', '?' or
+ * '!'). A terminator always ends a token and a sentence, so every piece can
+ * be scanned by its own Scanner into its own StatisticsEngine, and the
+ * engines are merged back together in order. The merged engine holds the
+ * complete vocabulary of the document, which makes every statistic,
+ * including the type-token and hapax legomana ratios, identical to a
+ * sequential run.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ParallelAnalyzer
+{
+    /**
+     * The default number of characters below which a piece of text is
+     * scanned sequentially.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private ForkJoinPool pool;
+    private int chunkSize;
+    /**
+     * Creates the engine that each piece of text is analyzed with.
+     */
+    private Supplier<StatisticsEngine> engines;
+
+    /**
+     * Constructor for a ParallelAnalyzer that calculates the standard
+     * statistics on the common pool.
+     */
+    public ParallelAnalyzer()
+    {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE,
+                StatisticsEngine::standard);
+    }
+
+    /**
+     * Constructor for the ParallelAnalyzer class.
+     * 
+     * @param pool
+     *            The pool the pieces of text are analyzed on
+     * @param chunkSize
+     *            The number of characters below which a piece of text is no
+     *            longer split
+     * @param engines
+     *            Creates a new engine for a piece of text. Every engine must
+     *            have the same statistics registered in the same order.
+     */
+    public ParallelAnalyzer(ForkJoinPool pool, int chunkSize,
+            Supplier<StatisticsEngine> engines)
+    {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.engines = engines;
+    }
+
+    /**
+     * Calculates the statistics of a text file in parallel. The file is read
+     * the same way FindAuthor reads it, with line breaks read as whitespace.
+     * 
+     * @param file
+     *            The file path of the text file
+     * @return an ArrayList of the values of the statistics.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public ArrayList<Double> getStatistics(String file) throws IOException
+    {
+        Reader reader = FindAuthor.openDocument(file);
+        try
+        {
+            return analyze(readAll(reader)).getValues();
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Runs the statistics over a text in parallel.
+     * 
+     * @param text
+     *            The characters of the text
+     * @return the merged engine holding the statistics of the whole text.
+     */
+    public StatisticsEngine analyze(char[] text)
+    {
+        return pool.invoke(new AnalyzeTask(text, 0, text.length));
+    }
+
+    /**
+     * Reads every character of a reader into an array.
+     * 
+     * @param reader
+     *            The reader to be read
+     * @return an array holding exactly the characters that were read.
+     * @throws IOException
+     *             if the reader fails.
+     */
+    public static char[] readAll(Reader reader) throws IOException
+    {
+        char[] text = new char[8192];
+        int length = 0;
+        int read;
+        while ((read = reader.read(text, length, text.length - length)) != -1)
+        {
+            length += read;
+            if (length == text.length)
+            {
+                text = Arrays.copyOf(text, text.length * 2);
+            }
+        }
+        return Arrays.copyOf(text, length);
+    }
+
+    /**
+     * Finds the first position at or after start that directly follows a
+     * sentence terminator.
+     * 
+     * @param text
+     *            The characters of the text
+     * @param start
+     *            The position to start searching at
+     * @param end
+     *            The position to stop searching at
+     * @return the position after the terminator, or end if there is none.
+     */
+    static int nextSentenceBoundary(char[] text, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            char c = text[i];
+            if (c == '.' || c == '?' || c == '!')
+            {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Analyzes the text between two positions, splitting it in two at a
+     * sentence boundary while it is larger than the chunk size.
+     */
+    private class AnalyzeTask extends RecursiveTask<StatisticsEngine>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private char[] text;
+        private int start;
+        private int end;
+
+        /**
+         * Constructor for the AnalyzeTask class.
+         * 
+         * @param text
+         *            The characters of the text
+         * @param start
+         *            The position of the first character of this piece
+         * @param end
+         *            The position after the last character of this piece
+         */
+        AnalyzeTask(char[] text, int start, int end)
+        {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Scans this piece sequentially if it is small enough or cannot be
+         * split. Otherwise analyzes both halves in parallel and merges them.
+         * 
+         * @return the engine holding the statistics of this piece.
+         */
+        protected StatisticsEngine compute()
+        {
+            int split = end;
+            if (end - start > chunkSize)
+            {
+                split = nextSentenceBoundary(text, start + (end - start) / 2,
+                        end);
+            }
+            if (split >= end)
+            {
+                StatisticsEngine engine = engines.get();
+                engine.run(new Scanner(new CharArrayReader(text, start, end
+                        - start)));
+                return engine;
+            }
+            AnalyzeTask second = new AnalyzeTask(text, split, end);
+            second.fork();
+            StatisticsEngine first = new AnalyzeTask(text, start, split)
+                    .compute();
+            first.merge(second.join());
+            return first;
+        }
+    }
+}
@@ -1,4 +1,6 @@
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The phrase class is an object that consists of a group of tokens, each
@@ -37,6 +39,39 @@ public class Phrase
         tokenCollection.add(token);
     }
 
+    /**
+     * Returns the number of tokens in this phrase.
+     * 
+     * @return the size of the tokenCollection.
+     */
+    public int getTokenCount()
+    {
+        return tokenCollection.size();
+    }
+
+    /**
+     * Returns the token at the given position of this phrase (O(1)).
+     * 
+     * @param index
+     *            The position of the token, from 0 to getTokenCount() - 1
+     * @return the token at the position.
+     */
+    public Token getToken(int index)
+    {
+        return tokenCollection.get(index);
+    }
+
+    /**
+     * Returns a read-only view of the tokens in this phrase. Unlike copy(),
+     * no elements are copied, so the view reflects any tokens added later.
+     * 
+     * @return an unmodifiable List backed by the tokenCollection.
+     */
+    public List<Token> getTokens()
+    {
+        return Collections.unmodifiableList(tokenCollection);
+    }
+
     /**
      * Copies all of the elements from the instance variable (tokenCollection)
      * which holds all of the tokens into a new data structure of type
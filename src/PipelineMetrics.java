@@ -0,0 +1,175 @@
+/**
+ * PipelineMetrics is where the analysis pipeline sends its measurements. The
+ * measurements go to a single MetricsReporter, which is installed with
+ * setReporter(). While no reporter is installed, instrumentation is turned
+ * off: the pipeline checks isEnabled() once per document and then takes no
+ * measurements at all.
+ * 
+ * The stages are exclusive of each other. Scanning does not include the time
+ * spent reading, and parsing and statistics do not include the time their
+ * Scanner spent, so the stages of a document add up to its total time.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public final class PipelineMetrics
+{
+    /**
+     * The stages of the pipeline that are timed.
+     */
+    public static enum Stage
+    {
+        READ, SCAN, PARSE, STATISTICS, PROFILE_LOAD, CLASSIFY
+    };
+
+    /**
+     * The counters of the pipeline, apart from the tokens of each type.
+     */
+    public static enum Counter
+    {
+        CHARACTERS_READ, WORDS, PHRASES, SENTENCES, PROFILES_COMPARED
+    };
+
+    /**
+     * The installed reporter, or null if instrumentation is turned off.
+     */
+    private static volatile MetricsReporter reporter = null;
+
+    /**
+     * PipelineMetrics only has static methods.
+     */
+    private PipelineMetrics()
+    {
+    }
+
+    /**
+     * Installs the reporter that measurements are sent to. Documents that are
+     * already being analyzed keep the setting they started with.
+     * 
+     * @param r
+     *            The new reporter, or null to turn instrumentation off
+     */
+    public static void setReporter(MetricsReporter r)
+    {
+        reporter = r;
+    }
+
+    /**
+     * Returns the installed reporter.
+     * 
+     * @return the reporter, or null if instrumentation is turned off.
+     */
+    public static MetricsReporter getReporter()
+    {
+        return reporter;
+    }
+
+    /**
+     * Checks if instrumentation is turned on.
+     * 
+     * @return true if a reporter is installed, or false otherwise.
+     */
+    public static boolean isEnabled()
+    {
+        return reporter != null;
+    }
+
+    /**
+     * Reads the clock at the start of a stage.
+     * 
+     * @return the current time in nanoseconds, or 0 if instrumentation is
+     *         turned off.
+     */
+    public static long start()
+    {
+        if (reporter == null)
+        {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Reports a stage that was started with start().
+     * 
+     * @param stage
+     *            The stage that was completed
+     * @param start
+     *            The value returned by start()
+     * @param excluded
+     *            Nanoseconds inside the stage that belong to other stages
+     * @param items
+     *            The number of things the stage handled
+     */
+    public static void stop(Stage stage, long start, long excluded,
+            long items)
+    {
+        MetricsReporter r = reporter;
+        if (r != null && start != 0)
+        {
+            r.stageCompleted(stage, System.nanoTime() - start - excluded,
+                    items);
+        }
+    }
+
+    /**
+     * Reports a stage whose time has already been measured.
+     * 
+     * @param stage
+     *            The stage that was completed
+     * @param nanos
+     *            The time spent in the stage, in nanoseconds
+     * @param items
+     *            The number of things the stage handled
+     */
+    public static void stage(Stage stage, long nanos, long items)
+    {
+        MetricsReporter r = reporter;
+        if (r != null)
+        {
+            r.stageCompleted(stage, nanos, items);
+        }
+    }
+
+    /**
+     * Adds to one of the counters, if instrumentation is turned on.
+     * 
+     * @param counter
+     *            The counter to add to
+     * @param amount
+     *            The amount to add
+     */
+    public static void count(Counter counter, long amount)
+    {
+        MetricsReporter r = reporter;
+        if (r != null && amount != 0)
+        {
+            r.counted(counter, amount);
+        }
+    }
+
+    /**
+     * Reports the tokens of each type returned by a Scanner, if
+     * instrumentation is turned on.
+     * 
+     * @param counts
+     *            The number of tokens of each type, indexed by ordinal
+     */
+    public static void countTokens(long[] counts)
+    {
+        MetricsReporter r = reporter;
+        if (r != null)
+        {
+            Scanner.TOKEN_TYPE[] types = Scanner.TOKEN_TYPE.values();
+            for (int i = 0; i < types.length; i++)
+            {
+                if (counts[i] != 0)
+                {
+                    r.tokensScanned(types[i], counts[i]);
+                }
+            }
+        }
+    }
+}
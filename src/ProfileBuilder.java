@@ -0,0 +1,344 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The ProfileBuilder creates .stats files from a corpus of texts. The corpus
+ * is a directory with one subdirectory per author, and every file in an
+ * author's subdirectory is one of their texts. The texts are analyzed in
+ * parallel, and the engines of one author's texts are merged into a single
+ * profile, as if the texts had been read one after another. The profile is
+ * written as a .stats file named after the subdirectory, with the dots of the
+ * subdirectory name replaced by spaces for the author name; the subdirectory
+ * "jane.austen" becomes "jane.austen.stats" for the author "jane austen".
+ * 
+ * If n-gram profiles are turned on, the hashed character n-grams of the texts
+ * are counted in the same pass, and an NGramProfile is written next to each
+ * .stats file, as "jane.austen.ngrams".
+ * 
+ * Only a limited number of authors are in progress at once, and the engine
+ * of each text is merged into its author's as soon as the text is done, so
+ * memory use stays bounded however many authors and texts the corpus has:
+ * one engine per author in progress, and one per text being analyzed.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ProfileBuilder
+{
+    /**
+     * The size of the n-gram vectors written from the command line, 2^12.
+     */
+    public static final int DEFAULT_NGRAM_BITS = 12;
+
+    private ExecutorService executor;
+    /**
+     * The largest number of authors whose texts are analyzed at once.
+     */
+    private int maxAuthorsInProgress;
+    /**
+     * The number of characters in an n-gram, or 0 if no n-gram profiles are
+     * written.
+     */
+    private int ngramSize;
+    private int ngramBits;
+
+    /**
+     * An author whose texts have been submitted but whose profile has not
+     * been written yet.
+     */
+    private static class PendingAuthor
+    {
+        private File directory;
+        private List<Future<?>> texts;
+        /**
+         * The engines of the texts that are done, merged into one, or null
+         * if no text is done yet.
+         */
+        private StatisticsEngine merged;
+
+        /**
+         * Constructor for the PendingAuthor class.
+         * 
+         * @param directory
+         *            The subdirectory of the author
+         */
+        PendingAuthor(File directory)
+        {
+            this.directory = directory;
+            texts = new ArrayList<Future<?>>();
+        }
+
+        /**
+         * Merges the engine of a finished text into the author's engine, so
+         * the text's engine can be garbage collected straight away. Every
+         * statistic is a sum of counts, so the order the texts finish in
+         * does not change the profile.
+         * 
+         * @param engine
+         *            The engine of the text
+         */
+        synchronized void add(StatisticsEngine engine)
+        {
+            if (merged == null)
+            {
+                merged = engine;
+            }
+            else
+            {
+                merged.merge(engine);
+            }
+        }
+    }
+
+    /**
+     * Constructor for the ProfileBuilder class.
+     * 
+     * @param executor
+     *            The executor the texts are analyzed on. It is not shut down
+     *            by this class.
+     * @param maxAuthorsInProgress
+     *            The largest number of authors whose texts are analyzed at
+     *            once
+     */
+    public ProfileBuilder(ExecutorService executor, int maxAuthorsInProgress)
+    {
+        this.executor = executor;
+        this.maxAuthorsInProgress = Math.max(1, maxAuthorsInProgress);
+        ngramSize = 0;
+    }
+
+    /**
+     * Turns on writing an n-gram profile next to every .stats file.
+     * 
+     * @param n
+     *            The number of characters in an n-gram, or 0 to turn n-gram
+     *            profiles off
+     * @param bits
+     *            The n-gram vectors have 2^bits positions
+     */
+    public void setNGramProfiles(int n, int bits)
+    {
+        if (n > 0)
+        {
+            // fails now rather than in every analysis
+            new NGramAccumulator(n, bits);
+        }
+        ngramSize = n;
+        ngramBits = bits;
+    }
+
+    /**
+     * Builds a .stats file for every author subdirectory of a corpus.
+     * Subdirectories without any files are skipped.
+     * 
+     * @param corpus
+     *            The directory holding one subdirectory per author
+     * @param output
+     *            The directory the .stats files are written to
+     * @return an ArrayList of the profiles that were written, in the order of
+     *         the subdirectory names.
+     * @throws IOException
+     *             if a text cannot be read or a .stats file cannot be
+     *             written.
+     */
+    public ArrayList<AuthorProfile> build(File corpus, File output)
+            throws IOException
+    {
+        File[] authors = corpus.listFiles();
+        if (authors == null)
+        {
+            throw new IOException(corpus + " is not a directory");
+        }
+        Arrays.sort(authors);
+        ArrayList<AuthorProfile> answer = new ArrayList<AuthorProfile>();
+        ArrayDeque<PendingAuthor> pending = new ArrayDeque<PendingAuthor>();
+        try
+        {
+            for (File author : authors)
+            {
+                if (!author.isDirectory())
+                {
+                    continue;
+                }
+                PendingAuthor p = submitTexts(author);
+                if (p.texts.isEmpty())
+                {
+                    continue;
+                }
+                pending.add(p);
+                if (pending.size() >= maxAuthorsInProgress)
+                {
+                    answer.add(finish(pending.remove(), output));
+                }
+            }
+            while (!pending.isEmpty())
+            {
+                answer.add(finish(pending.remove(), output));
+            }
+        }
+        finally
+        {
+            for (PendingAuthor p : pending)
+            {
+                for (Future<?> f : p.texts)
+                {
+                    f.cancel(true);
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Submits every file of an author's subdirectory for analysis. Each
+     * analysis merges its engine into the author's as soon as it is done.
+     * 
+     * @param author
+     *            The subdirectory of the author
+     * @return the pending author, holding the analyses in the order of the
+     *         file names.
+     */
+    private PendingAuthor submitTexts(File author)
+    {
+        final PendingAuthor pending = new PendingAuthor(author);
+        File[] files = author.listFiles();
+        if (files == null)
+        {
+            return pending;
+        }
+        Arrays.sort(files);
+        for (final File text : files)
+        {
+            if (!text.isFile())
+            {
+                continue;
+            }
+            pending.texts.add(executor.submit(new Callable<Void>()
+            {
+                public Void call() throws IOException
+                {
+                    StatisticsEngine engine = StatisticsEngine.standard();
+                    if (ngramSize > 0)
+                    {
+                        engine.register(new NGramAccumulator(ngramSize,
+                                ngramBits));
+                    }
+                    pending.add(FindAuthor.analyze(text.getPath(), engine));
+                    return null;
+                }
+            }));
+        }
+        return pending;
+    }
+
+    /**
+     * Waits for the texts of an author to be merged and writes the profile.
+     * 
+     * @param author
+     *            The author to be finished
+     * @param output
+     *            The directory the .stats file is written to
+     * @return the profile that was written.
+     * @throws IOException
+     *             if a text cannot be read or the file cannot be written.
+     */
+    private AuthorProfile finish(PendingAuthor author, File output)
+            throws IOException
+    {
+        try
+        {
+            for (Future<?> text : author.texts)
+            {
+                text.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while building "
+                    + author.directory);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        StatisticsEngine merged;
+        synchronized (author)
+        {
+            merged = author.merged;
+        }
+        String dirName = author.directory.getName();
+        String name = dirName.replace('.', ' ');
+        AuthorProfile profile = new AuthorProfile(name, Arrays.copyOf(merged
+                .getValueArray(), AuthorProfile.STATISTIC_COUNT));
+        profile.save(new File(output, dirName + ProfileRegistry.EXTENSION));
+        if (ngramSize > 0)
+        {
+            NGramAccumulator ngrams = (NGramAccumulator) merged
+                    .getAccumulator(AuthorProfile.STATISTIC_COUNT);
+            new NGramProfile(name, ngramSize, ngramBits, ngrams
+                    .getFrequencies()).save(new File(output, dirName
+                    + NGramProfile.EXTENSION));
+        }
+        return profile;
+    }
+
+    /**
+     * Builds the profiles of a corpus from the command line.
+     * 
+     * @param args
+     *            the corpus directory, the output directory, and optionally
+     *            the number of threads and the n-gram size
+     * @throws IOException
+     *             if a text cannot be read or a file cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("usage: ProfileBuilder <corpus> <output> "
+                    + "[threads] [n-gram size]");
+            System.exit(1);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length > 2)
+        {
+            threads = Integer.parseInt(args[2]);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            ProfileBuilder builder = new ProfileBuilder(executor, threads);
+            if (args.length > 3)
+            {
+                builder.setNGramProfiles(Integer.parseInt(args[3]),
+                        DEFAULT_NGRAM_BITS);
+            }
+            for (AuthorProfile p : builder.build(new File(args[0]), new File(
+                    args[1])))
+            {
+                System.out.println("Wrote profile for " + p.getName());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
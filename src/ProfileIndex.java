@@ -0,0 +1,417 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * A ProfileIndex is a vantage point tree over a set of author profiles, which
+ * finds the profiles closest to a document without comparing the document to
+ * every profile. The weighted distance of AuthorProfile.distanceTo() obeys the
+ * triangle inequality as long as no weight is negative, so whole subtrees of
+ * profiles can be skipped once they are known to be farther away than the
+ * best profiles found so far.
+ * 
+ * The answers are always the same as comparing the document to every profile:
+ * distances are computed with AuthorProfile.distanceTo(), profiles that are
+ * equally close are ordered by their position in the list the index was built
+ * from, and a subtree is only skipped if it is farther away by more than a
+ * small margin that covers rounding errors.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ProfileIndex
+{
+    /**
+     * The relative margin by which a subtree must be out of reach before it
+     * is skipped, so that rounding in the distances can never skip a profile
+     * that a full comparison would have found.
+     */
+    private static final double SLACK = 1e-9;
+
+    private List<AuthorProfile> profiles;
+    private double[] weights;
+    // the tree, one entry per node; node 0 is the root
+    private int[] vantage;
+    private double[] radius;
+    private int[] inside;
+    private int[] outside;
+    private int nodeCount;
+    /**
+     * The distances to the current vantage point while the tree is built.
+     */
+    private double[] distances;
+    /**
+     * True if a profile has a statistic that is not a finite number, in which
+     * case the tree cannot be trusted and every query compares every profile.
+     */
+    private boolean bruteForce;
+
+    /**
+     * Constructor for the ProfileIndex class. Building the index takes
+     * O(n log^2 n) distance calculations for n profiles.
+     * 
+     * @param profiles
+     *            The profiles to be indexed
+     * @param weights
+     *            The weight of each statistic, none of them negative
+     */
+    public ProfileIndex(List<AuthorProfile> profiles, double[] weights)
+    {
+        for (double w : weights)
+        {
+            if (!(w >= 0))
+            {
+                throw new IllegalArgumentException("negative weight " + w);
+            }
+        }
+        this.profiles = new ArrayList<AuthorProfile>(profiles);
+        this.weights = weights.clone();
+        int n = this.profiles.size();
+        vantage = new int[n];
+        radius = new double[n];
+        inside = new int[n];
+        outside = new int[n];
+        nodeCount = 0;
+        bruteForce = false;
+        for (AuthorProfile p : this.profiles)
+        {
+            for (int k = 0; k < weights.length; k++)
+            {
+                if (Double.isNaN(p.getStatistic(k))
+                        || Double.isInfinite(p.getStatistic(k)))
+                {
+                    bruteForce = true;
+                }
+            }
+        }
+        distances = new double[n];
+        int[] items = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            items[i] = i;
+        }
+        build(items, 0, n, new Random(n));
+        distances = null;
+    }
+
+    /**
+     * Builds the subtree over items[start] to items[end - 1]. A random item
+     * becomes the vantage point, and the rest are split at their median
+     * distance to it.
+     * 
+     * @param items
+     *            The positions of the profiles
+     * @param start
+     *            The first item of the subtree
+     * @param end
+     *            The item after the last item of the subtree
+     * @param random
+     *            Chooses the vantage points
+     * @return the node of the subtree, or -1 if it is empty.
+     */
+    private int build(int[] items, int start, int end, Random random)
+    {
+        if (start == end)
+        {
+            return -1;
+        }
+        int node = nodeCount;
+        nodeCount++;
+        int pick = start + random.nextInt(end - start);
+        int vp = items[pick];
+        items[pick] = items[start];
+        items[start] = vp;
+        vantage[node] = vp;
+        inside[node] = -1;
+        outside[node] = -1;
+        if (end - start == 1)
+        {
+            return node;
+        }
+        double[] vpStats = statisticsOf(vp);
+        Integer[] rest = new Integer[end - start - 1];
+        for (int i = 0; i < rest.length; i++)
+        {
+            rest[i] = items[start + 1 + i];
+            distances[rest[i]] = profiles.get(rest[i]).distanceTo(vpStats,
+                    weights);
+        }
+        Arrays.sort(rest, new Comparator<Integer>()
+        {
+            public int compare(Integer a, Integer b)
+            {
+                return Double.compare(distances[a], distances[b]);
+            }
+        });
+        int half = rest.length / 2;
+        for (int i = 0; i < rest.length; i++)
+        {
+            items[start + 1 + i] = rest[i];
+        }
+        radius[node] = distances[rest[half]];
+        // the items up to and including the median are inside. Items tied
+        // with the median may fall on either side, which the search allows
+        // for, so that many equal distances still split the items in half
+        // and the tree stays O(log n) deep
+        int split = start + 1 + half + 1;
+        inside[node] = build(items, start + 1, split, random);
+        outside[node] = build(items, split, end, random);
+        return node;
+    }
+
+    /**
+     * Copies the statistics of a profile into an array.
+     * 
+     * @param index
+     *            The position of the profile
+     * @return the statistics of the profile.
+     */
+    private double[] statisticsOf(int index)
+    {
+        double[] stats = new double[weights.length];
+        for (int k = 0; k < stats.length; k++)
+        {
+            stats[k] = profiles.get(index).getStatistic(k);
+        }
+        return stats;
+    }
+
+    /**
+     * returns the number of profiles in the index.
+     * 
+     * @return the number of profiles.
+     */
+    public int size()
+    {
+        return profiles.size();
+    }
+
+    /**
+     * Finds the profile closest to the statistics of a document. If several
+     * profiles are equally close, the first of them is returned.
+     * 
+     * @param docStats
+     *            The statistics of the document
+     * @return the closest profile, the same one as FindAuthor.findClosest().
+     */
+    public AuthorProfile nearest(double[] docStats)
+    {
+        return nearest(docStats, 1).get(0);
+    }
+
+    /**
+     * Finds the k profiles closest to the statistics of a document.
+     * 
+     * @param docStats
+     *            The statistics of the document
+     * @param k
+     *            The number of profiles to find
+     * @return a List of the min(k, size()) closest profiles, closest first.
+     *         Equally close profiles are in the order they were indexed.
+     * @throws IllegalArgumentException
+     *             if k is less than 1.
+     */
+    public List<AuthorProfile> nearest(double[] docStats, int k)
+    {
+        if (k < 1)
+        {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        Candidates best = new Candidates(Math.min(k, profiles.size()));
+        boolean finite = true;
+        for (double d : docStats)
+        {
+            if (Double.isNaN(d) || Double.isInfinite(d))
+            {
+                finite = false;
+            }
+        }
+        if (bruteForce || !finite)
+        {
+            for (int i = 0; i < profiles.size(); i++)
+            {
+                best.offer(i, profiles.get(i).distanceTo(docStats, weights));
+            }
+        }
+        else if (nodeCount > 0)
+        {
+            search(0, docStats, best);
+        }
+        return best.toList();
+    }
+
+    /**
+     * Searches a subtree for profiles closer than the current candidates,
+     * visiting the side of the vantage point the document is on first.
+     * 
+     * @param node
+     *            The node of the subtree, or -1 for an empty subtree
+     * @param docStats
+     *            The statistics of the document
+     * @param best
+     *            The closest profiles found so far
+     */
+    private void search(int node, double[] docStats, Candidates best)
+    {
+        if (node == -1)
+        {
+            return;
+        }
+        int vp = vantage[node];
+        double d = profiles.get(vp).distanceTo(docStats, weights);
+        best.offer(vp, d);
+        double mu = radius[node];
+        if (d <= mu)
+        {
+            search(inside[node], docStats, best);
+            if (reachable(mu - d, d + mu, best))
+            {
+                search(outside[node], docStats, best);
+            }
+        }
+        else
+        {
+            search(outside[node], docStats, best);
+            if (reachable(d - mu, d + mu, best))
+            {
+                search(inside[node], docStats, best);
+            }
+        }
+    }
+
+    /**
+     * Checks if a subtree could hold a profile that belongs among the
+     * candidates.
+     * 
+     * @param lowerBound
+     *            The smallest possible distance to a profile in the subtree
+     * @param scale
+     *            The size of the distances the bound was computed from
+     * @param best
+     *            The closest profiles found so far
+     * @return false only if every profile of the subtree is farther away than
+     *         all of the candidates.
+     */
+    private static boolean reachable(double lowerBound, double scale,
+            Candidates best)
+    {
+        return !best.isFull()
+                || lowerBound <= best.worstDistance() + SLACK * (scale + 1);
+    }
+
+    /**
+     * The k closest profiles found so far, kept in a heap with the farthest
+     * candidate on top.
+     */
+    private class Candidates
+    {
+        private int k;
+        private PriorityQueue<double[]> heap;
+
+        /**
+         * Constructor for the Candidates class.
+         * 
+         * @param k
+         *            The number of profiles to keep
+         */
+        Candidates(int k)
+        {
+            this.k = k;
+            heap = new PriorityQueue<double[]>(Math.max(k, 1),
+                    new Comparator<double[]>()
+                    {
+                        public int compare(double[] a, double[] b)
+                        {
+                            return -compareCandidates(a, b);
+                        }
+                    });
+        }
+
+        /**
+         * Orders candidates by distance, and equal distances by position.
+         * 
+         * @param a
+         *            a candidate as {distance, position}
+         * @param b
+         *            a candidate as {distance, position}
+         * @return a negative number if a is closer than b.
+         */
+        private int compareCandidates(double[] a, double[] b)
+        {
+            if (a[0] < b[0])
+            {
+                return -1;
+            }
+            if (a[0] > b[0])
+            {
+                return 1;
+            }
+            return Double.compare(a[1], b[1]);
+        }
+
+        /**
+         * Adds a profile if it is closer than the farthest candidate.
+         * 
+         * @param index
+         *            The position of the profile
+         * @param distance
+         *            The distance of the profile to the document
+         */
+        void offer(int index, double distance)
+        {
+            double[] candidate = { distance, index };
+            if (heap.size() < k)
+            {
+                heap.add(candidate);
+            }
+            else if (k > 0 && compareCandidates(candidate, heap.peek()) < 0)
+            {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        /**
+         * @return true if k candidates have been found.
+         */
+        boolean isFull()
+        {
+            return heap.size() >= k;
+        }
+
+        /**
+         * @return the distance of the farthest candidate.
+         */
+        double worstDistance()
+        {
+            return heap.peek()[0];
+        }
+
+        /**
+         * @return the candidate profiles, closest first.
+         */
+        List<AuthorProfile> toList()
+        {
+            ArrayList<double[]> sorted = new ArrayList<double[]>(heap);
+            Collections.sort(sorted, new Comparator<double[]>()
+            {
+                public int compare(double[] a, double[] b)
+                {
+                    return compareCandidates(a, b);
+                }
+            });
+            ArrayList<AuthorProfile> answer = new ArrayList<AuthorProfile>();
+            for (double[] candidate : sorted)
+            {
+                answer.add(profiles.get((int) candidate[1]));
+            }
+            return answer;
+        }
+    }
+}
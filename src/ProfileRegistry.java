@@ -0,0 +1,323 @@
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * The ProfileRegistry keeps the author profiles of a directory of .stats
+ * files in memory. Every file is parsed once, and the directory is watched
+ * for files that are added, changed or removed, which are then parsed again
+ * in the background.
+ * 
+ * The profiles are published as immutable snapshots. A change never touches
+ * the current snapshot; instead a new one is built and swapped in through a
+ * volatile field. Readers therefore never lock and never see a half updated
+ * set of profiles, and classifying a document needs no disk access at all.
+ * Snapshots list the profiles in the order of their file names.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ProfileRegistry
+{
+    /**
+     * The extension of the files that hold author profiles.
+     */
+    public static final String EXTENSION = ".stats";
+
+    /**
+     * An immutable set of profiles, with the version of the registry it was
+     * published as.
+     */
+    public static final class Snapshot
+    {
+        private TreeMap<String, AuthorProfile> byFile;
+        private List<AuthorProfile> profiles;
+        private long version;
+
+        /**
+         * Constructor for the Snapshot class.
+         * 
+         * @param byFile
+         *            The profiles by file name, which must not be changed
+         *            afterwards
+         * @param version
+         *            The version of this snapshot
+         */
+        private Snapshot(TreeMap<String, AuthorProfile> byFile, long version)
+        {
+            this.byFile = byFile;
+            this.profiles = Collections
+                    .unmodifiableList(new ArrayList<AuthorProfile>(byFile
+                            .values()));
+            this.version = version;
+        }
+
+        /**
+         * returns the profiles of this snapshot.
+         * 
+         * @return an unmodifiable List of the profiles, ordered by file name.
+         */
+        public List<AuthorProfile> getProfiles()
+        {
+            return profiles;
+        }
+
+        /**
+         * returns the version of this snapshot. Every change to the registry
+         * publishes a snapshot with a higher version.
+         * 
+         * @return the version of this snapshot.
+         */
+        public long getVersion()
+        {
+            return version;
+        }
+    }
+
+    private Path directory;
+    /**
+     * The current snapshot. It is replaced, never changed.
+     */
+    private volatile Snapshot snapshot;
+    private WatchService watcher;
+
+    /**
+     * Constructor for the ProfileRegistry class. Every .stats file in the
+     * directory is parsed before the constructor returns. Files that cannot
+     * be parsed are left out.
+     * 
+     * @param directory
+     *            The directory holding the .stats files
+     * @throws IOException
+     *             if the directory cannot be read.
+     */
+    public ProfileRegistry(Path directory) throws IOException
+    {
+        this.directory = directory;
+        snapshot = new Snapshot(new TreeMap<String, AuthorProfile>(), 0);
+        reload();
+    }
+
+    /**
+     * returns the current snapshot. This never blocks.
+     * 
+     * @return the most recently published snapshot.
+     */
+    public Snapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * returns the profiles of the current snapshot. This never blocks.
+     * 
+     * @return an unmodifiable List of the profiles, ordered by file name.
+     */
+    public List<AuthorProfile> getProfiles()
+    {
+        return snapshot.getProfiles();
+    }
+
+    /**
+     * Parses every .stats file of the directory again and publishes them as
+     * a new snapshot.
+     * 
+     * @throws IOException
+     *             if the directory cannot be read.
+     */
+    public synchronized void reload() throws IOException
+    {
+        TreeMap<String, AuthorProfile> byFile =
+                new TreeMap<String, AuthorProfile>();
+        DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*"
+                + EXTENSION);
+        try
+        {
+            for (Path file : files)
+            {
+                AuthorProfile profile = parse(file);
+                if (profile != null)
+                {
+                    byFile.put(file.getFileName().toString(), profile);
+                }
+            }
+        }
+        finally
+        {
+            files.close();
+        }
+        publish(byFile);
+    }
+
+    /**
+     * Parses a single file of the directory again and publishes the result.
+     * The profile is removed if the file no longer exists. If the file
+     * exists but cannot be parsed, for example because it is still being
+     * written, the old profile is kept.
+     * 
+     * @param fileName
+     *            The name of the file within the directory
+     */
+    public synchronized void refresh(String fileName)
+    {
+        if (!fileName.endsWith(EXTENSION))
+        {
+            return;
+        }
+        Path file = directory.resolve(fileName);
+        TreeMap<String, AuthorProfile> byFile =
+                new TreeMap<String, AuthorProfile>(snapshot.byFile);
+        if (!Files.exists(file))
+        {
+            if (byFile.remove(fileName) == null)
+            {
+                return;
+            }
+        }
+        else
+        {
+            AuthorProfile profile = parse(file);
+            if (profile == null)
+            {
+                return;
+            }
+            byFile.put(fileName, profile);
+        }
+        publish(byFile);
+    }
+
+    /**
+     * Reads a profile, leaving it out if it cannot be read.
+     * 
+     * @param file
+     *            The .stats file
+     * @return the profile, or null if the file could not be parsed.
+     */
+    private AuthorProfile parse(Path file)
+    {
+        try
+        {
+            return AuthorProfile.load(file.toString());
+        }
+        catch (IOException e)
+        {
+            System.err.println("Skipping profile " + file + ": "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Publishes a new snapshot of the given profiles. Only called while
+     * holding the lock of this registry, so versions are never reused.
+     * 
+     * @param byFile
+     *            The profiles by file name
+     */
+    private void publish(TreeMap<String, AuthorProfile> byFile)
+    {
+        snapshot = new Snapshot(byFile, snapshot.getVersion() + 1);
+    }
+
+    /**
+     * Starts watching the directory on a daemon thread. Changes to .stats
+     * files are published until close() is called.
+     * 
+     * @throws IOException
+     *             if the directory cannot be watched.
+     */
+    public synchronized void startWatching() throws IOException
+    {
+        if (watcher != null)
+        {
+            return;
+        }
+        watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        final WatchService service = watcher;
+        Thread watchThread = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                watch(service);
+            }
+        }, "profile-registry-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Waits for changes to the directory and refreshes the files that
+     * changed, until the watch service is closed.
+     * 
+     * @param service
+     *            The watch service the directory is registered with
+     */
+    private void watch(WatchService service)
+    {
+        try
+        {
+            while (true)
+            {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents())
+                {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+                    {
+                        reload();
+                    }
+                    else
+                    {
+                        refresh(((Path) event.context()).toString());
+                    }
+                }
+                if (!key.reset())
+                {
+                    return;
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ClosedWatchServiceException e)
+        {
+            // close() was called
+        }
+        catch (IOException e)
+        {
+            System.err.println("Stopped watching " + directory + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops watching the directory. The last snapshot stays available.
+     * 
+     * @throws IOException
+     *             if the watch service cannot be closed.
+     */
+    public synchronized void close() throws IOException
+    {
+        if (watcher != null)
+        {
+            watcher.close();
+            watcher = null;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A ProfileStore is a single binary file holding any number of author
+ * profiles, which is memory mapped instead of parsed. The file is laid out as
+ * a struct of arrays so that the values of one statistic for every author
+ * are next to each other:
+ * 
+ * <pre>
+ * int    magic ("FAPS")
+ * int    version
+ * int    number of authors (n)
+ * int    number of statistics (s)
+ * double statistics[s][n]     statistic i of author j at [i][j]
+ * int    nameOffsets[n + 1]   name j is bytes nameOffsets[j] up to [j + 1]
+ * byte   names[]              the UTF-8 bytes of every name
+ * </pre>
+ * 
+ * Everything is big endian. Opening a store only maps the file and reads the
+ * header, so it costs the same for thirteen authors as for a million, and
+ * the pages of the file are only read when they are used.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ProfileStore
+{
+    private static final int MAGIC = 0x46415053;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    /**
+     * The number of authors findClosest() compares one statistic at a time,
+     * so that their partial distances stay in the cache.
+     */
+    private static final int BLOCK_SIZE = 1024;
+
+    private int authorCount;
+    private int statisticCount;
+    private DoubleBuffer statistics;
+    private IntBuffer nameOffsets;
+    private ByteBuffer names;
+
+    /**
+     * Constructor for a ProfileStore over a mapped file.
+     * 
+     * @param buffer
+     *            The contents of the store file
+     * @throws IOException
+     *             if the buffer does not hold a profile store, or its header
+     *             does not fit the buffer.
+     */
+    private ProfileStore(ByteBuffer buffer) throws IOException
+    {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+        {
+            throw new IOException("not a profile store");
+        }
+        if (buffer.getInt(4) != VERSION)
+        {
+            throw new IOException("unsupported profile store version "
+                    + buffer.getInt(4));
+        }
+        authorCount = buffer.getInt(8);
+        statisticCount = buffer.getInt(12);
+        if (statisticCount != AuthorProfile.STATISTIC_COUNT)
+        {
+            throw new IOException("profile store has " + statisticCount
+                    + " statistics instead of "
+                    + AuthorProfile.STATISTIC_COUNT);
+        }
+        // in longs, so that a corrupt count cannot overflow past the check
+        long statisticsSize = 8L * statisticCount * authorCount;
+        long offsetsSize = 4L * (authorCount + 1L);
+        if (authorCount < 0 || HEADER_SIZE + statisticsSize + offsetsSize
+                > buffer.capacity())
+        {
+            throw new IOException("profile store of " + buffer.capacity()
+                    + " bytes cannot hold " + authorCount + " authors");
+        }
+        int statisticsEnd = (int) (HEADER_SIZE + statisticsSize);
+        int offsetsEnd = (int) (statisticsEnd + offsetsSize);
+        statistics = slice(buffer, HEADER_SIZE, statisticsEnd).asDoubleBuffer();
+        nameOffsets = slice(buffer, statisticsEnd, offsetsEnd).asIntBuffer();
+        names = slice(buffer, offsetsEnd, buffer.capacity());
+        if (nameOffsets.get(0) != 0
+                || nameOffsets.get(authorCount) > names.capacity()
+                || nameOffsets.get(authorCount) < 0)
+        {
+            throw new IOException("profile store names do not fit the file");
+        }
+    }
+
+    /**
+     * Returns the part of a buffer between two positions.
+     * 
+     * @param buffer
+     *            The whole buffer
+     * @param start
+     *            The position of the first byte
+     * @param end
+     *            The position after the last byte
+     * @return a buffer sharing the bytes between the positions.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int end)
+    {
+        ByteBuffer copy = buffer.duplicate();
+        copy.position(start);
+        copy.limit(end);
+        return copy.slice();
+    }
+
+    /**
+     * Maps a store file into memory.
+     * 
+     * @param file
+     *            The file path of the store
+     * @return the store in the file.
+     * @throws IOException
+     *             if the file is not found or is not a profile store.
+     */
+    public static ProfileStore open(String file) throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            MappedByteBuffer buffer = raf.getChannel().map(
+                    FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            return new ProfileStore(buffer);
+        }
+        finally
+        {
+            // the mapping stays valid after the channel is closed
+            raf.close();
+        }
+    }
+
+    /**
+     * Writes profiles to a store file, replacing the file if it exists. The
+     * store is written to a temporary file in the same directory and then
+     * moved over the old one, so a process that has the old store mapped
+     * keeps reading it whole.
+     * 
+     * @param profiles
+     *            The profiles to be stored
+     * @param file
+     *            The file path of the store
+     * @throws IOException
+     *             if the file cannot be written.
+     */
+    public static void write(List<AuthorProfile> profiles, String file)
+            throws IOException
+    {
+        int n = profiles.size();
+        int s = AuthorProfile.STATISTIC_COUNT;
+        byte[][] nameBytes = new byte[n][];
+        long namesLength = 0;
+        for (int j = 0; j < n; j++)
+        {
+            nameBytes[j] = profiles.get(j).getName()
+                    .getBytes(StandardCharsets.UTF_8);
+            namesLength += nameBytes[j].length;
+        }
+        // in longs, so that a store too large for one buffer is refused
+        long size = HEADER_SIZE + 8L * s * n + 4L * (n + 1) + namesLength;
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("a profile store of " + n + " authors "
+                    + "would take " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(s);
+        for (int i = 0; i < s; i++)
+        {
+            for (int j = 0; j < n; j++)
+            {
+                buffer.putDouble(profiles.get(j).getStatistic(i));
+            }
+        }
+        int offset = 0;
+        buffer.putInt(offset);
+        for (int j = 0; j < n; j++)
+        {
+            offset += nameBytes[j].length;
+            buffer.putInt(offset);
+        }
+        for (int j = 0; j < n; j++)
+        {
+            buffer.put(nameBytes[j]);
+        }
+        buffer.flip();
+        File target = new File(file).getAbsoluteFile();
+        File temp = File.createTempFile("." + target.getName() + "-", ".tmp",
+                target.getParentFile());
+        try
+        {
+            FileOutputStream out = new FileOutputStream(temp);
+            try
+            {
+                FileChannel channel = out.getChannel();
+                while (buffer.hasRemaining())
+                {
+                    channel.write(buffer);
+                }
+            }
+            finally
+            {
+                out.close();
+            }
+            Files.move(temp.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            // only left behind if the store could not be written or moved
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * Builds a store file from .stats files.
+     * 
+     * @param statFiles
+     *            The file paths of the stat files
+     * @param file
+     *            The file path of the store
+     * @throws IOException
+     *             if a stat file cannot be read or the store cannot be
+     *             written.
+     */
+    public static void importStatFiles(List<String> statFiles, String file)
+            throws IOException
+    {
+        write(AuthorProfile.loadAll(statFiles), file);
+    }
+
+    /**
+     * Writes every profile of this store as a .stats file in a directory.
+     * Each file is named after its author, with the spaces of the name
+     * replaced by dots (for example "jane.austen.stats").
+     * 
+     * @param directory
+     *            The directory the .stats files are written to
+     * @throws IOException
+     *             if a file cannot be written.
+     */
+    public void exportStatFiles(String directory) throws IOException
+    {
+        for (int j = 0; j < authorCount; j++)
+        {
+            File statFile = new File(directory, getName(j).replace(' ', '.')
+                    + ProfileRegistry.EXTENSION);
+            getProfile(j).save(statFile);
+        }
+    }
+
+    /**
+     * returns the number of authors in this store.
+     * 
+     * @return the number of authors.
+     */
+    public int getAuthorCount()
+    {
+        return authorCount;
+    }
+
+    /**
+     * returns the name of an author. Only the first and last name offsets
+     * are checked when the store is opened, so the offsets of the name are
+     * checked here.
+     * 
+     * @param author
+     *            The position of the author in the store
+     * @return the name of the author.
+     * @throws IllegalStateException
+     *             if the offsets of the name do not fit the file.
+     */
+    public String getName(int author)
+    {
+        int start = nameOffsets.get(author);
+        int end = nameOffsets.get(author + 1);
+        if (start < 0 || end < start || end > names.capacity())
+        {
+            throw new IllegalStateException("profile store name " + author
+                    + " does not fit the file");
+        }
+        byte[] bytes = new byte[end - start];
+        ByteBuffer name = names.duplicate();
+        name.position(start);
+        name.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * returns one statistic of an author.
+     * 
+     * @param author
+     *            The position of the author in the store
+     * @param statistic
+     *            The position of the statistic
+     * @return the value of the statistic.
+     */
+    public double getStatistic(int author, int statistic)
+    {
+        return statistics.get(statistic * authorCount + author);
+    }
+
+    /**
+     * Reads the author at a position into an AuthorProfile.
+     * 
+     * @param author
+     *            The position of the author in the store
+     * @return the profile of the author.
+     */
+    public AuthorProfile getProfile(int author)
+    {
+        double[] stats = new double[statisticCount];
+        for (int i = 0; i < statisticCount; i++)
+        {
+            stats[i] = getStatistic(author, i);
+        }
+        return new AuthorProfile(getName(author), stats);
+    }
+
+    /**
+     * Reads every author of this store into AuthorProfiles.
+     * 
+     * @return an ArrayList of the profiles, in the order of the store.
+     */
+    public ArrayList<AuthorProfile> toProfiles()
+    {
+        ArrayList<AuthorProfile> answer = new ArrayList<AuthorProfile>();
+        for (int j = 0; j < authorCount; j++)
+        {
+            answer.add(getProfile(j));
+        }
+        return answer;
+    }
+
+    /**
+     * Finds the position of the author whose statistics are closest to the
+     * statistics of a document, reading the mapped statistics directly. The
+     * distance is the same weighted distance as AuthorProfile.distanceTo(),
+     * and if several authors are equally close the first of them is chosen.
+     * The authors are compared a block at a time, one statistic after
+     * another, so every statistic is read in the order it is stored.
+     * 
+     * @param docStats
+     *            The statistics of the document
+     * @param weights
+     *            The weight of each statistic
+     * @return the position of the closest author, or -1 if the store is
+     *         empty.
+     */
+    public int findClosest(double[] docStats, double[] weights)
+    {
+        long start = PipelineMetrics.start();
+        int indexOfSmallest = -1;
+        double smallest = 0;
+        double[] totals = new double[Math.min(BLOCK_SIZE, authorCount)];
+        double[] values = new double[totals.length];
+        DoubleBuffer column = statistics.duplicate();
+        for (int first = 0; first < authorCount; first += BLOCK_SIZE)
+        {
+            int count = Math.min(BLOCK_SIZE, authorCount - first);
+            Arrays.fill(totals, 0, count, 0);
+            for (int k = 0; k < statisticCount; k++)
+            {
+                double doc = docStats[k];
+                double weight = weights[k];
+                // one bulk read of the block's values of this statistic
+                column.position(k * authorCount + first);
+                column.get(values, 0, count);
+                for (int j = 0; j < count; j++)
+                {
+                    totals[j] += (Math.abs(doc - values[j])) * weight;
+                }
+            }
+            for (int j = 0; j < count; j++)
+            {
+                if (indexOfSmallest == -1 || totals[j] < smallest)
+                {
+                    indexOfSmallest = first + j;
+                    smallest = totals[j];
+                }
+            }
+        }
+        PipelineMetrics.stop(PipelineMetrics.Stage.CLASSIFY, start, 0,
+                authorCount);
+        PipelineMetrics.count(PipelineMetrics.Counter.PROFILES_COMPARED,
+                authorCount);
+        return indexOfSmallest;
+    }
+}
@@ -0,0 +1,419 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A RangeIndex answers the statistics of any run of consecutive sentences of
+ * a document without building a new Document for it. The number of words,
+ * letters and phrases before every sentence is kept as a prefix sum, so the
+ * average word length, average words per sentence and sentence complexity of
+ * a range are found in constant time. The type-token and hapax legomana
+ * ratios need the number of different words and of words used once, which
+ * are not sums. For them the index keeps a count of every word of a current
+ * range, and moves that range to the one asked for by adding and removing
+ * words at its ends. Asking for ranges that overlap the last one, such as a
+ * window sliding over the document, therefore costs only the words that
+ * slide in and out.
+ * 
+ * Ranges are given as a first sentence and the sentence just after the last
+ * one, and their statistics are the same as those of a StatisticsEngine run
+ * over just those sentences, in the order of the StatisticsEngine constants.
+ * A batch of unrelated ranges can be answered together, in an order that
+ * keeps the total movement small.
+ * 
+ * The counts make a RangeIndex stateful, so it must not be shared between
+ * threads without synchronization.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class RangeIndex
+{
+    /**
+     * The vocabulary id of every word of the document, in order.
+     */
+    private int[] words;
+    /**
+     * The length of the word with each vocabulary id.
+     */
+    private int[] lengths;
+    /**
+     * For sentence s, the number of words, letters and phrases in the
+     * sentences before it. Each array has one more entry than there are
+     * sentences, the last being the total.
+     */
+    private int[] wordsBefore;
+    private long[] lettersBefore;
+    private int[] phrasesBefore;
+
+    /**
+     * How often each word occurs between currentStart and currentEnd.
+     */
+    private int[] counts;
+    private int currentStart;
+    private int currentEnd;
+    private int typeCount;
+    private int hapaxCount;
+
+    /**
+     * Constructor for a RangeIndex over a compact document.
+     * 
+     * @param doc
+     *            The document to be indexed
+     */
+    public RangeIndex(CompactDocument doc)
+    {
+        int sentences = doc.getSentenceCount();
+        Vocabulary vocabulary = doc.getVocabulary();
+        words = new int[doc.getWordCount()];
+        for (int w = 0; w < words.length; w++)
+        {
+            words[w] = doc.getWordId(w);
+        }
+        lengths = new int[vocabulary.getTypeCount()];
+        for (int id = 0; id < lengths.length; id++)
+        {
+            lengths[id] = vocabulary.getWord(id).length();
+        }
+        wordsBefore = new int[sentences + 1];
+        lettersBefore = new long[sentences + 1];
+        phrasesBefore = new int[sentences + 1];
+        for (int s = 0; s < sentences; s++)
+        {
+            // an empty sentence has no phrases, and ends where it starts
+            int phraseEnd = doc.getPhraseEnd(s);
+            int end = phraseEnd == 0 ? 0 : doc.getWordEnd(phraseEnd - 1);
+            long letters = 0;
+            for (int w = wordsBefore[s]; w < end; w++)
+            {
+                letters += lengths[words[w]];
+            }
+            wordsBefore[s + 1] = end;
+            lettersBefore[s + 1] = lettersBefore[s] + letters;
+            phrasesBefore[s + 1] = doc.getPhraseEnd(s);
+        }
+        counts = new int[lengths.length];
+    }
+
+    /**
+     * Constructor for a RangeIndex over a Document. Any sentences of the
+     * document that have not been parsed yet are parsed first, and every
+     * sentence of its sentence collection is indexed. Only word tokens are
+     * counted, as in the StatisticsEngine.
+     * 
+     * @param doc
+     *            The document to be indexed
+     */
+    public RangeIndex(Document doc)
+    {
+        doc.parseDocument();
+        ArrayList<Sentence> sentences = doc.getSentenceCollection();
+        Vocabulary vocabulary = new Vocabulary();
+        words = new int[1024];
+        int wordCount = 0;
+        wordsBefore = new int[sentences.size() + 1];
+        lettersBefore = new long[sentences.size() + 1];
+        phrasesBefore = new int[sentences.size() + 1];
+        for (int s = 0; s < sentences.size(); s++)
+        {
+            Sentence sentence = sentences.get(s);
+            long letters = 0;
+            for (Phrase p : sentence.getPhrases())
+            {
+                for (Token t : p.getTokens())
+                {
+                    if (t.getType() != Scanner.TOKEN_TYPE.WORD)
+                    {
+                        continue;
+                    }
+                    if (wordCount == words.length)
+                    {
+                        words = Arrays.copyOf(words, words.length * 2);
+                    }
+                    words[wordCount] = vocabulary.add(t.getStr());
+                    wordCount++;
+                    letters += t.getStr().length();
+                }
+            }
+            wordsBefore[s + 1] = wordCount;
+            lettersBefore[s + 1] = lettersBefore[s] + letters;
+            phrasesBefore[s + 1] = phrasesBefore[s]
+                    + sentence.getPhraseCount();
+        }
+        words = Arrays.copyOf(words, wordCount);
+        lengths = new int[vocabulary.getTypeCount()];
+        for (int id = 0; id < lengths.length; id++)
+        {
+            lengths[id] = vocabulary.getWord(id).length();
+        }
+        counts = new int[lengths.length];
+    }
+
+    /**
+     * returns the number of sentences in the document.
+     * 
+     * @return the number of sentences.
+     */
+    public int getSentenceCount()
+    {
+        return wordsBefore.length - 1;
+    }
+
+    /**
+     * returns the number of words in a range of sentences.
+     * 
+     * @param start
+     *            The index of the first sentence of the range
+     * @param end
+     *            The index just after the last sentence of the range
+     * @return the number of words.
+     */
+    public int getWordCount(int start, int end)
+    {
+        checkRange(start, end);
+        return wordsBefore[end] - wordsBefore[start];
+    }
+
+    /**
+     * returns the number of phrases in a range of sentences.
+     * 
+     * @param start
+     *            The index of the first sentence of the range
+     * @param end
+     *            The index just after the last sentence of the range
+     * @return the number of phrases.
+     */
+    public int getPhraseCount(int start, int end)
+    {
+        checkRange(start, end);
+        return phrasesBefore[end] - phrasesBefore[start];
+    }
+
+    /**
+     * returns the number of different words in a range of sentences.
+     * 
+     * @param start
+     *            The index of the first sentence of the range
+     * @param end
+     *            The index just after the last sentence of the range
+     * @return the number of different words.
+     */
+    public int getTypeCount(int start, int end)
+    {
+        checkRange(start, end);
+        moveTo(wordsBefore[start], wordsBefore[end]);
+        return typeCount;
+    }
+
+    /**
+     * returns the number of words used exactly once in a range of sentences.
+     * 
+     * @param start
+     *            The index of the first sentence of the range
+     * @param end
+     *            The index just after the last sentence of the range
+     * @return the number of words used once.
+     */
+    public int getHapaxCount(int start, int end)
+    {
+        checkRange(start, end);
+        moveTo(wordsBefore[start], wordsBefore[end]);
+        return hapaxCount;
+    }
+
+    /**
+     * Calculates the five standard statistics of a range of sentences.
+     * 
+     * @param start
+     *            The index of the first sentence of the range
+     * @param end
+     *            The index just after the last sentence of the range
+     * @return an array of the statistics, in the order of the
+     *         StatisticsEngine constants.
+     */
+    public double[] getStatistics(int start, int end)
+    {
+        checkRange(start, end);
+        moveTo(wordsBefore[start], wordsBefore[end]);
+        double wordCount = wordsBefore[end] - wordsBefore[start];
+        double sentenceCount = end - start;
+        double[] stats = new double[AuthorProfile.STATISTIC_COUNT];
+        stats[StatisticsEngine.AVERAGE_WORD_LENGTH] = (lettersBefore[end]
+                - lettersBefore[start]) / wordCount;
+        stats[StatisticsEngine.TYPE_TOKEN_RATIO] = typeCount / wordCount;
+        stats[StatisticsEngine.HAPAX_LEGOMANA] = hapaxCount / wordCount;
+        stats[StatisticsEngine.AVERAGE_WORDS_PER_SENTENCE] = wordCount
+                / sentenceCount;
+        stats[StatisticsEngine.SENTENCE_COMPLEXITY] = (phrasesBefore[end]
+                - phrasesBefore[start]) / sentenceCount;
+        return stats;
+    }
+
+    /**
+     * Calculates the statistics of a batch of ranges. The ranges are visited
+     * in Mo's order: sorted by the block their first word falls in, and
+     * within a block by their last word, back and forth. With about
+     * sqrt(number of ranges) blocks the counts move
+     * O(words * sqrt(number of ranges)) times in all, however the ranges
+     * are spread.
+     * 
+     * @param starts
+     *            The index of the first sentence of each range
+     * @param ends
+     *            The index just after the last sentence of each range
+     * @return the statistics of each range, in the order of the ranges.
+     */
+    public double[][] getStatistics(int[] starts, int[] ends)
+    {
+        if (starts.length != ends.length)
+        {
+            throw new IllegalArgumentException("starts and ends differ in "
+                    + "length");
+        }
+        final int n = starts.length;
+        final int[] from = new int[n];
+        final int[] to = new int[n];
+        for (int q = 0; q < n; q++)
+        {
+            checkRange(starts[q], ends[q]);
+            from[q] = wordsBefore[starts[q]];
+            to[q] = wordsBefore[ends[q]];
+        }
+        final int blockSize = Math.max(1, (int) (words.length / Math
+                .sqrt(Math.max(1, n))));
+        List<Integer> order = new ArrayList<Integer>(n);
+        for (int q = 0; q < n; q++)
+        {
+            order.add(q);
+        }
+        order.sort(new Comparator<Integer>()
+        {
+            public int compare(Integer a, Integer b)
+            {
+                int blockA = from[a] / blockSize;
+                int blockB = from[b] / blockSize;
+                if (blockA != blockB)
+                {
+                    return Integer.compare(blockA, blockB);
+                }
+                // odd blocks run backwards, so the end does not jump back
+                if (blockA % 2 == 1)
+                {
+                    return Integer.compare(to[b], to[a]);
+                }
+                return Integer.compare(to[a], to[b]);
+            }
+        });
+        double[][] answer = new double[n][];
+        for (int q : order)
+        {
+            answer[q] = getStatistics(starts[q], ends[q]);
+        }
+        return answer;
+    }
+
+    /**
+     * Checks that a range of sentences lies within the document.
+     * 
+     * @param start
+     *            The index of the first sentence of the range
+     * @param end
+     *            The index just after the last sentence of the range
+     */
+    private void checkRange(int start, int end)
+    {
+        if (start < 0 || end > getSentenceCount() || start > end)
+        {
+            throw new IndexOutOfBoundsException("sentences " + start + " to "
+                    + end + " of " + getSentenceCount());
+        }
+    }
+
+    /**
+     * Moves the current range of words to a new one, adding the words that
+     * come into it before removing the words that leave it, so that no count
+     * is ever below 0.
+     * 
+     * @param start
+     *            The position of the first word of the new range
+     * @param end
+     *            The position just after the last word of the new range
+     */
+    private void moveTo(int start, int end)
+    {
+        if (start >= currentEnd || end <= currentStart)
+        {
+            // the ranges do not overlap, so start again from empty
+            while (currentStart < currentEnd)
+            {
+                remove(words[currentStart]);
+                currentStart++;
+            }
+            currentStart = start;
+            currentEnd = start;
+        }
+        while (currentStart > start)
+        {
+            currentStart--;
+            add(words[currentStart]);
+        }
+        while (currentEnd < end)
+        {
+            add(words[currentEnd]);
+            currentEnd++;
+        }
+        while (currentStart < start)
+        {
+            remove(words[currentStart]);
+            currentStart++;
+        }
+        while (currentEnd > end)
+        {
+            currentEnd--;
+            remove(words[currentEnd]);
+        }
+    }
+
+    /**
+     * Adds one occurrence of a word to the counts.
+     * 
+     * @param id
+     *            The vocabulary id of the word
+     */
+    private void add(int id)
+    {
+        int count = ++counts[id];
+        if (count == 1)
+        {
+            typeCount++;
+            hapaxCount++;
+        }
+        else if (count == 2)
+        {
+            hapaxCount--;
+        }
+    }
+
+    /**
+     * Removes one occurrence of a word from the counts.
+     * 
+     * @param id
+     *            The vocabulary id of the word
+     */
+    private void remove(int id)
+    {
+        int count = --counts[id];
+        if (count == 0)
+        {
+            typeCount--;
+            hapaxCount--;
+        }
+        else if (count == 1)
+        {
+            hapaxCount++;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * A RankedAuthor is one entry of a ranking of authors by how close their
+ * profiles are to a document. Besides the distance, it holds the margin: how
+ * much closer this author is than the next author of the ranking. A large
+ * margin for the first author means the answer is clear, while a margin near
+ * 0 means the next author was almost chosen instead.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public final class RankedAuthor
+{
+    private AuthorProfile profile;
+    private int rank;
+    private double distance;
+    private double margin;
+
+    /**
+     * Constructor for the RankedAuthor class.
+     * 
+     * @param profile
+     *            The profile of the author
+     * @param rank
+     *            The position in the ranking, starting at 1
+     * @param distance
+     *            The distance of the profile to the document
+     * @param margin
+     *            The distance of the next author minus this distance
+     */
+    public RankedAuthor(AuthorProfile profile, int rank, double distance,
+            double margin)
+    {
+        this.profile = profile;
+        this.rank = rank;
+        this.distance = distance;
+        this.margin = margin;
+    }
+
+    /**
+     * returns the profile of the author.
+     * 
+     * @return the author's profile.
+     */
+    public AuthorProfile getProfile()
+    {
+        return profile;
+    }
+
+    /**
+     * returns the name of the author.
+     * 
+     * @return the author's name.
+     */
+    public String getName()
+    {
+        return profile.getName();
+    }
+
+    /**
+     * returns the position of the author in the ranking.
+     * 
+     * @return the rank, where 1 is the closest author.
+     */
+    public int getRank()
+    {
+        return rank;
+    }
+
+    /**
+     * returns the weighted distance of the author's profile to the document.
+     * 
+     * @return the distance.
+     */
+    public double getDistance()
+    {
+        return distance;
+    }
+
+    /**
+     * returns how much closer this author is than the next one.
+     * 
+     * @return the margin, or positive infinity if no author comes next.
+     */
+    public double getMargin()
+    {
+        return margin;
+    }
+
+    /**
+     * Describes the entry as its rank, name, distance and margin.
+     * 
+     * @return a one line description of the entry.
+     */
+    public String toString()
+    {
+        return rank + ". " + getName() + " (distance " + distance
+                + ", margin " + margin + ")";
+    }
+}
@@ -0,0 +1,413 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ResultCache remembers the statistics and the author found for documents
+ * that have already been classified, so that classifying the same text again
+ * only costs hashing it. A result is keyed by a 64 bit hash and the length of
+ * the bytes of the document, together with a fingerprint of the profiles and
+ * weights it was classified with. A change to any profile therefore misses
+ * the cache instead of returning a stale author.
+ * 
+ * Results are kept in memory up to a maximum number, dropping the least
+ * recently used first. If a directory is given, every result is also written
+ * there as a small file in the .stats format, named after its key, and a
+ * result that is not in memory is looked for on disk before the document is
+ * analyzed. The disk tier is never trimmed by this class.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class ResultCache
+{
+    /**
+     * The extension of the files of the disk tier.
+     */
+    public static final String EXTENSION = ".result";
+
+    /**
+     * The key of a cached result.
+     */
+    private static final class Key
+    {
+        private long contentHash;
+        private long length;
+        private long profileVersion;
+
+        /**
+         * Constructor for the Key class.
+         * 
+         * @param contentHash
+         *            The hash of the bytes of the document
+         * @param length
+         *            The number of bytes of the document
+         * @param profileVersion
+         *            The fingerprint of the profiles and weights
+         */
+        private Key(long contentHash, long length, long profileVersion)
+        {
+            this.contentHash = contentHash;
+            this.length = length;
+            this.profileVersion = profileVersion;
+        }
+
+        /**
+         * Checks if another object is a key for the same result.
+         * 
+         * @param o
+         *            The object to be compared
+         * @return true if the object is an equal key, or false otherwise.
+         */
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key k = (Key) o;
+            return contentHash == k.contentHash && length == k.length
+                    && profileVersion == k.profileVersion;
+        }
+
+        /**
+         * Hashes the key for the map.
+         * 
+         * @return the hash of the key.
+         */
+        public int hashCode()
+        {
+            long h = HyperLogLog.mix(contentHash ^ profileVersion) + length;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        /**
+         * Names the key, for the file of the disk tier.
+         * 
+         * @return the hash, length and version in hexadecimal.
+         */
+        public String toString()
+        {
+            return Long.toHexString(contentHash) + "-"
+                    + Long.toHexString(length) + "-"
+                    + Long.toHexString(profileVersion);
+        }
+    }
+
+    /**
+     * A cached classification: the author, and the statistics of the
+     * document, kept as an AuthorProfile so that it can be saved like one.
+     */
+    private Map<Key, AuthorProfile> results;
+    /**
+     * The directory of the disk tier, or null if there is none.
+     */
+    private File directory;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor for a ResultCache that only keeps results in memory.
+     * 
+     * @param maxEntries
+     *            The largest number of results kept in memory
+     */
+    public ResultCache(int maxEntries)
+    {
+        this(maxEntries, null);
+    }
+
+    /**
+     * Constructor for a ResultCache with a disk tier.
+     * 
+     * @param maxEntries
+     *            The largest number of results kept in memory
+     * @param directory
+     *            The directory results are also written to, or null for none.
+     *            It is created if it does not exist.
+     */
+    public ResultCache(final int maxEntries, File directory)
+    {
+        if (maxEntries < 1)
+        {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.directory = directory;
+        if (directory != null)
+        {
+            directory.mkdirs();
+        }
+        results = new LinkedHashMap<Key, AuthorProfile>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            protected boolean removeEldestEntry(
+                    Map.Entry<Key, AuthorProfile> eldest)
+            {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Hashes bytes eight at a time. The hash is not cryptographic, but any
+     * change to the bytes changes it with overwhelming probability.
+     * 
+     * @param bytes
+     *            The bytes to be hashed
+     * @return a 64 bit hash of the bytes.
+     */
+    public static long hash(byte[] bytes)
+    {
+        ByteBuffer b = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        long h = 0x9e3779b97f4a7c15L;
+        int i = 0;
+        for (; i + 8 <= bytes.length; i += 8)
+        {
+            h = Long.rotateLeft(h ^ (b.getLong(i) * 0xc2b2ae3d27d4eb4fL), 31)
+                    * 0x9e3779b97f4a7c15L;
+        }
+        for (; i < bytes.length; i++)
+        {
+            h = Long.rotateLeft(h ^ ((bytes[i] & 0xff) * 0x165667b19e3779f9L),
+                    11) * 0x9e3779b97f4a7c15L;
+        }
+        return HyperLogLog.mix(h ^ bytes.length);
+    }
+
+    /**
+     * Computes a fingerprint of a set of profiles and weights, which is the
+     * profile version of the results classified with them. Equal profiles in
+     * the same order always give the same fingerprint, even in another run
+     * of the program, so results on disk stay valid across runs.
+     * 
+     * @param profiles
+     *            The profiles documents are compared to
+     * @param weights
+     *            The weight of each statistic
+     * @return a 64 bit fingerprint of the profiles and weights.
+     */
+    public static long fingerprint(List<AuthorProfile> profiles,
+            double[] weights)
+    {
+        long h = 0;
+        for (double w : weights)
+        {
+            h = HyperLogLog.mix(h ^ Double.doubleToLongBits(w));
+        }
+        for (AuthorProfile p : profiles)
+        {
+            h = HyperLogLog.mix(h ^ HyperLogLog.hash(p.getName()));
+            for (int i = 0; i < AuthorProfile.STATISTIC_COUNT; i++)
+            {
+                h = HyperLogLog.mix(h
+                        ^ Double.doubleToLongBits(p.getStatistic(i)));
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Finds the author of a document, using a cached result if the same
+     * bytes have been classified with the same profiles and weights before.
+     * The file is read only once; on a miss it is analyzed from the bytes
+     * that were hashed. The fingerprint of the profiles is computed on every
+     * call, which costs as much as comparing the document to every profile,
+     * so callers classifying many documents against the same profiles should
+     * compute fingerprint() once and pass it to the other classify().
+     * 
+     * @param docFile
+     *            The file path of the document
+     * @param profiles
+     *            The profiles to compare the document to
+     * @param weights
+     *            The weight of each statistic
+     * @return the closest author, with the statistics of the document.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public AuthorProfile classify(String docFile, List<AuthorProfile> profiles,
+            double[] weights) throws IOException
+    {
+        return classify(docFile, profiles, weights, fingerprint(profiles,
+                weights));
+    }
+
+    /**
+     * Finds the author of a document, using a cached result if the same
+     * bytes have been classified with the same profile version before.
+     * 
+     * @param docFile
+     *            The file path of the document
+     * @param profiles
+     *            The profiles to compare the document to
+     * @param weights
+     *            The weight of each statistic
+     * @param profileVersion
+     *            The fingerprint of the profiles and weights
+     * @return the closest author, with the statistics of the document.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public AuthorProfile classify(String docFile, List<AuthorProfile> profiles,
+            double[] weights, long profileVersion) throws IOException
+    {
+        byte[] bytes = Files.readAllBytes(Paths.get(docFile));
+        Key key = new Key(hash(bytes), bytes.length, profileVersion);
+        AuthorProfile result = get(key);
+        if (result == null)
+        {
+            StatisticsEngine engine = StatisticsEngine.standard();
+            // decoded the same way FindAuthor.openDocument() reads the file
+            engine.run(new Scanner(new LineBreakReader(new BufferedReader(
+                    new InputStreamReader(new ByteArrayInputStream(bytes))))));
+            double[] docStats = engine.getValueArray();
+            String author = FindAuthor.findClosest(docStats, profiles,
+                    weights).getName();
+            result = new AuthorProfile(author, docStats);
+            put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Looks a result up in memory, and then on disk.
+     * 
+     * @param key
+     *            The key of the result
+     * @return the result, or null if it is not cached.
+     */
+    private AuthorProfile get(Key key)
+    {
+        synchronized (this)
+        {
+            AuthorProfile result = results.get(key);
+            if (result != null)
+            {
+                hits++;
+                return result;
+            }
+        }
+        AuthorProfile result = null;
+        if (directory != null)
+        {
+            File file = fileOf(key);
+            if (file.isFile())
+            {
+                try
+                {
+                    result = AuthorProfile.load(file.getPath());
+                }
+                catch (IOException e)
+                {
+                    // a damaged file is treated as a miss and rewritten
+                    result = null;
+                }
+            }
+        }
+        synchronized (this)
+        {
+            if (result != null)
+            {
+                hits++;
+                results.put(key, result);
+            }
+            else
+            {
+                misses++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores a result in memory, and on disk if there is a disk tier.
+     * 
+     * @param key
+     *            The key of the result
+     * @param result
+     *            The author and statistics of the document
+     * @throws IOException
+     *             if the result cannot be written to disk.
+     */
+    private void put(Key key, AuthorProfile result) throws IOException
+    {
+        synchronized (this)
+        {
+            results.put(key, result);
+        }
+        if (directory != null)
+        {
+            // written under another name first, so readers never see half
+            File file = fileOf(key);
+            File temp = File.createTempFile(key.toString(), ".tmp", directory);
+            result.save(temp);
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Finds the file of a result in the disk tier.
+     * 
+     * @param key
+     *            The key of the result
+     * @return the file the result is stored in.
+     */
+    private File fileOf(Key key)
+    {
+        return new File(directory, key + EXTENSION);
+    }
+
+    /**
+     * returns the number of results kept in memory.
+     * 
+     * @return the number of results in memory.
+     */
+    public synchronized int size()
+    {
+        return results.size();
+    }
+
+    /**
+     * returns the number of lookups that found a result, in memory or on
+     * disk.
+     * 
+     * @return the number of hits so far.
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * returns the number of lookups that had to analyze the document.
+     * 
+     * @return the number of misses so far.
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Forgets every result kept in memory. The disk tier is left alone.
+     */
+    public synchronized void clear()
+    {
+        results.clear();
+    }
+}
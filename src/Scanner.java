@@ -19,9 +19,93 @@ import java.io.Reader;
 
 public class Scanner
 {
+    /**
+     * The number of characters pulled from the reader in a single read call.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    // character classes used by the lookup table
+    private static final byte OTHER = 0;
+    private static final byte WHITESPACE = 1;
+    private static final byte LETTER = 2;
+    private static final byte DIGIT = 3;
+    private static final byte SPECIAL = 4;
+    private static final byte PHRASE_TERMINATOR = 5;
+    private static final byte SENTENCE_TERMINATOR = 6;
+
+    /**
+     * The class of every ASCII character, indexed by the character itself.
+     * Characters outside of the table are always of class OTHER.
+     */
+    private static final byte[] CHARACTER_CLASS = new byte[128];
+    /**
+     * Shared single character strings, so that digits, terminators and
+     * unknown ASCII characters do not allocate a new String per token.
+     */
+    private static final String[] SINGLE_CHARACTER = new String[128];
+    /**
+     * The lower case form of every ASCII character that can be part of a
+     * word, and 0 for every other character, so that a run of word characters
+     * can be found and lower cased with one lookup per character.
+     */
+    private static final char[] WORD_PART_LOWER = new char[128];
+
+    static
+    {
+        for (int c = 0; c < 128; c++)
+        {
+            SINGLE_CHARACTER[c] = String.valueOf((char) c);
+        }
+        // letters have always been every character from 'A' through 'z'
+        for (int c = 'A'; c <= 'z'; c++)
+        {
+            CHARACTER_CLASS[c] = LETTER;
+        }
+        for (int c = '0'; c <= '9'; c++)
+        {
+            CHARACTER_CLASS[c] = DIGIT;
+        }
+        CHARACTER_CLASS['"'] = SPECIAL;
+        CHARACTER_CLASS['-'] = SPECIAL;
+        CHARACTER_CLASS[','] = PHRASE_TERMINATOR;
+        CHARACTER_CLASS[':'] = PHRASE_TERMINATOR;
+        CHARACTER_CLASS[';'] = PHRASE_TERMINATOR;
+        CHARACTER_CLASS['.'] = SENTENCE_TERMINATOR;
+        CHARACTER_CLASS['?'] = SENTENCE_TERMINATOR;
+        CHARACTER_CLASS['!'] = SENTENCE_TERMINATOR;
+        CHARACTER_CLASS[' '] = WHITESPACE;
+        for (int c = 0; c < 128; c++)
+        {
+            if (c >= 'A' && c <= 'Z')
+            {
+                WORD_PART_LOWER[c] = (char) (c + ('a' - 'A'));
+            }
+            else if (isWordPart(c))
+            {
+                WORD_PART_LOWER[c] = (char) c;
+            }
+        }
+    }
+
     private Reader in;
-    private String currentChar;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private int currentChar;
     private boolean endOfFile;
+    /**
+     * The buffer that words running past the end of the read buffer are built
+     * in. It is reused for every such word.
+     */
+    private StringBuilder word;
+    /**
+     * The number of tokens of each type returned so far, or null if
+     * instrumentation was turned off when the Scanner was made.
+     */
+    private long[] tokenCounts;
+    private long readNanos;
+    private long scanNanos;
+    private long charactersRead;
 
     // define symbolic constants for each type of token
     public static enum TOKEN_TYPE
@@ -35,7 +119,8 @@ public class Scanner
      * BufferedReader wrapped around a FileReader The instance field for the
      * Reader is initialized to the input parameter, and the endOfFile indicator
      * is set to false. The currentChar field is initialized by the getNextChar
-     * method.
+     * method. If PipelineMetrics is enabled, the Scanner counts and times its
+     * tokens.
      * 
      * @param in
      *            is the reader object supplied by the program constructing this
@@ -44,134 +129,287 @@ public class Scanner
     public Scanner(Reader in)
     {
         this.in = in;
+        buffer = new char[BUFFER_SIZE];
+        position = 0;
+        limit = 0;
+        word = new StringBuilder();
         endOfFile = false;
-        getNextChar();
+        if (PipelineMetrics.isEnabled())
+        {
+            tokenCounts = new long[TOKEN_TYPE.values().length];
+            long start = System.nanoTime();
+            getNextChar();
+            scanNanos = System.nanoTime() - start;
+        }
+        else
+        {
+            getNextChar();
+        }
     }
 
     /**
      * The getNextChar method attempts to get the next character from the input
      * stream. It sets the endOfFile flag true if the end of file is reached on
-     * the input stream. Otherwise, it reads the next character from the stream
-     * and converts it to a Java String object. postcondition: The input stream
-     * is advanced one character if it is not at end of file and the currentChar
-     * instance field is set to the String representation of the character read
-     * from the input stream. The flag endOfFile is set true if the input stream
-     * is exhausted.
+     * the input stream. Otherwise, it takes the next character from the
+     * buffer, refilling the buffer from the stream when it is empty.
+     * postcondition: The input stream is advanced one character if it is not
+     * at end of file and the currentChar instance field is set to the
+     * character read from the input stream. The flag endOfFile is set true if
+     * the input stream is exhausted.
      */
     private void getNextChar()
+    {
+        if (position == limit && !fillBuffer())
+        {
+            endOfFile = true;
+        }
+        else
+        {
+            currentChar = buffer[position];
+            position++;
+        }
+    }
+
+    /**
+     * Reads the next block of characters from the input stream into the
+     * buffer.
+     * 
+     * @return true if at least one character was read, or false if the input
+     *         stream is exhausted.
+     */
+    private boolean fillBuffer()
     {
         try
         {
-            int inp = in.read();
-            if (inp == -1)
-                endOfFile = true;
-            else
-                currentChar = "" + (char) inp;
+            long start = 0;
+            if (tokenCounts != null)
+            {
+                start = System.nanoTime();
+            }
+            int read = 0;
+            while (read == 0)
+            {
+                read = in.read(buffer, 0, buffer.length);
+            }
+            if (tokenCounts != null)
+            {
+                readNanos += System.nanoTime() - start;
+                charactersRead += Math.max(read, 0);
+            }
+            if (read == -1)
+            {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
         }
         catch (IOException e)
         {
             e.printStackTrace();
             System.exit(-1);
+            return false;
         }
     }
 
     /**
-     * Gets the next character in the document by checking to see if the input
-     * string is equal to the currentCharacter. If it is, it advances the
-     * currentCharacter by getting the next character.
+     * Advances the current character by getting the next character.
+     */
+    private void eat()
+    {
+        getNextChar();
+    }
+
+    /**
+     * Looks up the class of a character in the character class table.
      * 
-     * @param str
-     *            the string to be eaten (advances this character)
+     * @param c
+     *            The character to be classified
+     * @return the class of the character, OTHER if it is not an ASCII
+     *         character.
      */
-    private void eat(String str)
+    private static byte classOf(int c)
     {
-        if (str.equals(currentChar))
+        if (c < CHARACTER_CLASS.length)
         {
-            getNextChar();
+            return CHARACTER_CLASS[c];
         }
+        return OTHER;
     }
 
     /**
-     * Checks if the single character string is a letter by checking the compare
-     * value to a. If the value is greater than or equal to 0 and less than or
-     * equal to 25, the value should be a character.
+     * Gets the string of a single character, using the shared strings for
+     * ASCII characters.
      * 
-     * @param str
-     *            The string to be checked
-     * @return true if the str is a letter, or false otherwise.
+     * @param c
+     *            The character to be converted
+     * @return the String representation of the character.
      */
-    private boolean checkLetter(String str)
+    private static String stringOf(int c)
     {
-        return (str.compareTo("a") >= 0 && str.compareTo("a") <= 25)
-                || (str.compareTo("A") >= 0 && str.compareTo("Z") <= 25);
+        if (c < SINGLE_CHARACTER.length)
+        {
+            return SINGLE_CHARACTER[c];
+        }
+        return String.valueOf((char) c);
     }
 
     /**
-     * Checks if the single character string is a digit by comparing to 0. If
-     * the compare value is greater than or equal to 0 and less than or equal to
-     * 9, the value is a digit.
+     * Checks if the character is a letter. Letters are every character from
+     * 'A' through 'z'.
      * 
-     * @param str
-     *            The string to be checked
-     * @return true if the character is a digit, or false otherwise.
+     * @param c
+     *            The character to be checked
+     * @return true if the character is a letter, or false otherwise.
      */
-    private boolean checkDigit(String str)
+    private boolean checkLetter(int c)
     {
-        return (str.compareTo("0") >= 0 && str.compareTo("0") <= 9);
+        return classOf(c) == LETTER;
     }
 
     /**
-     * Checks if the single character is a special character (a single quote or
-     * a dash).
+     * Checks if the character is a digit.
      * 
-     * @param str
-     *            The string to be checked
-     * @return true if the character is a special character, or false otherwise.
+     * @param c
+     *            The character to be checked
+     * @return true if the character is a digit, or false otherwise.
      */
-    private boolean checkSpecial(String str)
+    private boolean checkDigit(int c)
     {
-        return (str.compareTo("\"") == 0 || str.compareTo("-") == 0);
+        return classOf(c) == DIGIT;
     }
 
     /**
-     * Checks if the single character is a phraseTerminator (a comma, colon or
+     * Checks if the character is a phraseTerminator (a comma, colon or
      * semicolon).
      * 
-     * @param str
-     *            The string to be checked
+     * @param c
+     *            The character to be checked
      * @return true if the character is a phraseTerminator, or false otherwise.
      */
-    private boolean checkPhraseTerminator(String str)
+    private boolean checkPhraseTerminator(int c)
     {
-        return (str.compareTo(",") == 0 || str.compareTo(":") == 0 || str
-                .compareTo(";") == 0);
+        return classOf(c) == PHRASE_TERMINATOR;
     }
 
     /**
-     * Checks if the single character is a sentenceTerminator (a period,
-     * question mark, or exclamation point).
+     * Checks if the character is a sentenceTerminator (a period, question
+     * mark, or exclamation point).
      * 
-     * @param str
-     *            The string to be checked
+     * @param c
+     *            The character to be checked
      * @return true if the character is a sentenceTerminator, or false
      *         otherwise.
      */
-    private boolean checkSentenceTerminator(String str)
+    private boolean checkSentenceTerminator(int c)
     {
-        return (str.compareTo(".") == 0 || str.compareTo("?") == 0 || str
-                .compareTo("!") == 0);
+        return classOf(c) == SENTENCE_TERMINATOR;
     }
 
     /**
-     * Checks if the single character is a whiteSpace.
+     * Checks if the character is a whiteSpace.
      * 
-     * @param str
-     *            The string to be checked
+     * @param c
+     *            The character to be checked
      * @return true if the character is a whiteSpace, or false otherwise.
      */
-    private boolean checkWhiteSpace(String str)
+    private boolean checkWhiteSpace(int c)
+    {
+        return classOf(c) == WHITESPACE;
+    }
+
+    /**
+     * Checks if the character can continue a word (a letter, a digit or a
+     * special character). Every other character ends the token before it, so
+     * text can be cut between two characters without changing its tokens
+     * unless both of them are word parts.
+     * 
+     * @param c
+     *            The character to be checked
+     * @return true if the character is part of a word, or false otherwise.
+     */
+    public static boolean isWordPart(int c)
+    {
+        byte type = classOf(c);
+        return type == LETTER || type == DIGIT || type == SPECIAL;
+    }
+
+    /**
+     * Skips the current whitespace character and the run of whitespace that
+     * follows it in the buffer, then gets the next character. This is the
+     * same as eating each of the whitespace characters one at a time.
+     */
+    private void skipWhiteSpace()
+    {
+        char[] b = buffer;
+        int i = position;
+        int end = limit;
+        while (i < end && b[i] == ' ')
+        {
+            i++;
+        }
+        position = i;
+        eat();
+    }
+
+    /**
+     * Lower cases the run of word characters in the buffer that starts at the
+     * given position.
+     * 
+     * @param start
+     *            The position of the first character of the run
+     * @return the position just after the run, which is the limit of the
+     *         buffer if the run reaches the end of it.
+     */
+    private int lowerWordRun(int start)
     {
-        return (str.compareTo(" ") == 0);
+        char[] b = buffer;
+        int i = start;
+        int end = limit;
+        while (i < end)
+        {
+            char c = b[i];
+            if (c >= WORD_PART_LOWER.length || WORD_PART_LOWER[c] == 0)
+            {
+                break;
+            }
+            b[i] = WORD_PART_LOWER[c];
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Reads the word that starts at the current character, which must be a
+     * letter. The word is found and lower cased a whole run at a time in the
+     * buffer, and when it ends inside the buffer its String is made straight
+     * from the buffer. Only a word that runs past the end of the buffer is
+     * copied through the word builder.
+     * 
+     * @return the word, lower cased.
+     */
+    private String scanWord()
+    {
+        // the current character is always the one just before position
+        int start = position - 1;
+        int end = lowerWordRun(start);
+        if (end < limit)
+        {
+            String answer = new String(buffer, start, end - start);
+            position = end;
+            eat();
+            return answer;
+        }
+        word.setLength(0);
+        while (hasNextToken() && isWordPart(currentChar))
+        {
+            start = position - 1;
+            end = lowerWordRun(start);
+            word.append(buffer, start, end - start);
+            position = end;
+            eat();
+        }
+        return word.toString();
     }
 
     /**
@@ -184,6 +422,70 @@ public class Scanner
         return !endOfFile;
     }
 
+    /**
+     * Gets the next token of the file. If instrumentation was turned on when
+     * the Scanner was made, the token is counted and timed, and everything the
+     * Scanner measured is reported to PipelineMetrics when the first end of
+     * file token is returned.
+     * 
+     * @return the next token of the file.
+     */
+    public Token nextToken()
+    {
+        if (tokenCounts == null)
+        {
+            return scanToken();
+        }
+        long start = System.nanoTime();
+        Token t = scanToken();
+        scanNanos += System.nanoTime() - start;
+        if (t.getType() == TOKEN_TYPE.END_OF_FILE)
+        {
+            if (tokenCounts[TOKEN_TYPE.END_OF_FILE.ordinal()] == 0)
+            {
+                tokenCounts[TOKEN_TYPE.END_OF_FILE.ordinal()] = 1;
+                report();
+            }
+        }
+        else
+        {
+            tokenCounts[t.getType().ordinal()]++;
+        }
+        return t;
+    }
+
+    /**
+     * Reports the reading and scanning time, the characters read and the
+     * tokens of each type to PipelineMetrics.
+     */
+    private void report()
+    {
+        long tokens = 0;
+        for (int i = 0; i < tokenCounts.length; i++)
+        {
+            tokens += tokenCounts[i];
+        }
+        PipelineMetrics.stage(PipelineMetrics.Stage.READ, readNanos,
+                charactersRead);
+        PipelineMetrics.stage(PipelineMetrics.Stage.SCAN, scanNanos
+                - readNanos, tokens);
+        PipelineMetrics.count(PipelineMetrics.Counter.CHARACTERS_READ,
+                charactersRead);
+        PipelineMetrics.countTokens(tokenCounts);
+    }
+
+    /**
+     * Returns the time this Scanner has spent reading and scanning, so that
+     * the stage using it can leave that time out of its own.
+     * 
+     * @return the time in nanoseconds, or 0 if instrumentation was turned
+     *         off when the Scanner was made.
+     */
+    long getInstrumentedNanos()
+    {
+        return scanNanos;
+    }
+
     /**
      * Gets the next token of the file by checking if the currentCharacter is a
      * word, a digit, a phrase terminator, a sentence terminator, or a
@@ -196,7 +498,7 @@ public class Scanner
      * 
      * @return a token based on the above rules.
      */
-    public Token nextToken()
+    private Token scanToken()
     {
         if (hasNextToken())
         {
@@ -207,46 +509,38 @@ public class Scanner
                     return new Token(Scanner.TOKEN_TYPE.END_OF_FILE, "END");
                 }
 
-                eat(currentChar);
+                skipWhiteSpace();
             }
             if (checkDigit(currentChar))
             {
-                Token answer = new Token(Scanner.TOKEN_TYPE.DIGIT, currentChar);
-                eat(currentChar);
+                Token answer = new Token(Scanner.TOKEN_TYPE.DIGIT,
+                        stringOf(currentChar));
+                eat();
                 return answer;
             }
             else if (checkPhraseTerminator(currentChar))
             {
                 Token answer = new Token(Scanner.TOKEN_TYPE.END_OF_PHRASE,
-                        currentChar);
-                eat(currentChar);
+                        stringOf(currentChar));
+                eat();
                 return answer;
             }
             else if (checkSentenceTerminator(currentChar))
             {
                 Token answer = new Token(Scanner.TOKEN_TYPE.END_OF_SENTENCE,
-                        currentChar);
-                eat(currentChar);
+                        stringOf(currentChar));
+                eat();
                 return answer;
             }
             else if (checkLetter(currentChar))
             {
-                String word = new String();
-                while (hasNextToken()
-                        && (checkLetter(currentChar)
-                                || checkSpecial(currentChar)
-                                || checkDigit(currentChar)))
-                {
-                    word = (word + currentChar.toLowerCase());
-                    eat(currentChar);
-                }
-                return new Token(Scanner.TOKEN_TYPE.WORD, word);
+                return new Token(Scanner.TOKEN_TYPE.WORD, scanWord());
             }
             else
             {
                 Token answer = new Token(Scanner.TOKEN_TYPE.UNKNOWN,
-                        currentChar);
-                eat(currentChar);
+                        stringOf(currentChar));
+                eat();
                 return answer;
             }
         }
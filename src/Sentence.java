@@ -1,9 +1,12 @@
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The sentence class contains a sequence of phrase objects. The sentence class
  * contains a method that allows the user to add phrase objects to the data
- * structure that holds the phrases, a method that copies the existing data
+ * structure that holds the phrases, methods that give read-only access to the
+ * phrases without copying them, a method that copies the existing data
  * structure into a new data structure, and a toString method that provides a
  * string representation of the object. The dataStructure of type ArrayList is
  * used because of its Big-O for add (O(1)). Additionally, the get and set for
@@ -43,6 +46,39 @@ public class Sentence
         phraseCollection.add(p);
     }
 
+    /**
+     * Returns the number of phrases in this sentence.
+     * 
+     * @return the size of the phraseCollection.
+     */
+    public int getPhraseCount()
+    {
+        return phraseCollection.size();
+    }
+
+    /**
+     * Returns the phrase at the given position of this sentence (O(1)).
+     * 
+     * @param index
+     *            The position of the phrase, from 0 to getPhraseCount() - 1
+     * @return the phrase at the position.
+     */
+    public Phrase getPhrase(int index)
+    {
+        return phraseCollection.get(index);
+    }
+
+    /**
+     * Returns a read-only view of the phrases in this sentence. Unlike copy(),
+     * neither the phrases nor their tokens are copied.
+     * 
+     * @return an unmodifiable List backed by the phraseCollection.
+     */
+    public List<Phrase> getPhrases()
+    {
+        return Collections.unmodifiableList(phraseCollection);
+    }
+
     /**
      * Creates a new data structure of type ArrayList and copies all of the
      * existing elements into it.
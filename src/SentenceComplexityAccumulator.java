@@ -0,0 +1,84 @@
+/**
+ * Accumulates the sentence complexity of a document, the average number of
+ * phrases per sentence.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class SentenceComplexityAccumulator implements StatisticAccumulator
+{
+    private long totalPhrases;
+    private long totalSentences;
+
+    /**
+     * Words do not affect the sentence complexity.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    public void addWord(String word)
+    {
+    }
+
+    /**
+     * Counts the phrase.
+     */
+    public void endPhrase()
+    {
+        totalPhrases++;
+    }
+
+    /**
+     * Counts the sentence.
+     */
+    public void endSentence()
+    {
+        totalSentences++;
+    }
+
+    /**
+     * Adds the phrase and sentence totals of the other accumulator to this
+     * one.
+     * 
+     * @param other
+     *            a SentenceComplexityAccumulator
+     */
+    public void merge(StatisticAccumulator other)
+    {
+        SentenceComplexityAccumulator o = (SentenceComplexityAccumulator) other;
+        totalPhrases += o.totalPhrases;
+        totalSentences += o.totalSentences;
+    }
+
+    /**
+     * returns the number of phrases counted.
+     * 
+     * @return the number of phrases.
+     */
+    public long getPhraseCount()
+    {
+        return totalPhrases;
+    }
+
+    /**
+     * returns the number of sentences counted.
+     * 
+     * @return the number of sentences.
+     */
+    public long getSentenceCount()
+    {
+        return totalSentences;
+    }
+
+    /**
+     * Returns the average number of phrases per sentence.
+     * 
+     * @return the number of phrases divided by the number of sentences.
+     */
+    public double getValue()
+    {
+        return (double) totalPhrases / (double) totalSentences;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * A StatisticAccumulator collects a single document statistic while the
+ * words, phrases and sentences of a document are streamed past it. Each
+ * statistic only keeps the running totals it needs, so any number of them can
+ * be computed together in one pass over the document (see StatisticsEngine).
+ * Accumulators of the same type can be merged, which combines the totals of
+ * two parts of a document into the totals of the whole.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public interface StatisticAccumulator
+{
+    /**
+     * Called for every word in the document, in order.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    void addWord(String word);
+
+    /**
+     * Called when a phrase of the document ends.
+     */
+    void endPhrase();
+
+    /**
+     * Called when a sentence of the document ends. The last phrase of the
+     * sentence has already been ended.
+     */
+    void endSentence();
+
+    /**
+     * Adds the totals of another accumulator of the same type to this one.
+     * State that an accumulator only reads, such as a Vocabulary shared with
+     * its StatisticsEngine, is merged by its owner and not by the
+     * accumulator.
+     * 
+     * @param other
+     *            The accumulator to be merged into this one
+     */
+    void merge(StatisticAccumulator other);
+
+    /**
+     * Returns the value of the statistic for everything accumulated so far.
+     * 
+     * @return the value of the statistic, or NaN if nothing has been counted
+     *         that the statistic divides by.
+     */
+    double getValue();
+}
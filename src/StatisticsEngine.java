@@ -0,0 +1,517 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * The StatisticsEngine computes any number of document statistics in a single
+ * pass. Statistics are registered as StatisticAccumulator objects, and the
+ * engine streams every word, phrase end and sentence end of the document to
+ * all of them at once. The engine can be fed straight from a Scanner, in which
+ * case the Sentence and Phrase tree of a Document is never built, or it can
+ * walk a Document that has already been parsed.
+ * 
+ * When fed tokens, the engine splits them into phrases and sentences exactly
+ * the way Document.parseDocument() does, so both ways of running it give the
+ * same values.
+ * 
+ * Statistics that depend on which words occur share the engine's Vocabulary,
+ * so that every word is only looked up once however many of them there are.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class StatisticsEngine
+{
+    // the positions of the statistics registered by standard()
+    public static final int AVERAGE_WORD_LENGTH = 0;
+    public static final int TYPE_TOKEN_RATIO = 1;
+    public static final int HAPAX_LEGOMANA = 2;
+    public static final int AVERAGE_WORDS_PER_SENTENCE = 3;
+    public static final int SENTENCE_COMPLEXITY = 4;
+
+    /**
+     * The registered statistics, in the order they were registered.
+     */
+    private ArrayList<StatisticAccumulator> accumulators;
+    /**
+     * The vocabulary of the words streamed through the engine, or null if no
+     * statistic has asked for it.
+     */
+    private Vocabulary vocabulary;
+    /**
+     * True if a sentence has been started but has not ended yet.
+     */
+    private boolean sentenceOpen;
+    /**
+     * True if a phrase has been started but has not ended yet.
+     */
+    private boolean phraseOpen;
+    // the words, phrases and sentences streamed through the engine so far
+    private long wordCount;
+    private long phraseCount;
+    private long sentenceCount;
+
+    /**
+     * Constructor for the StatisticsEngine class. The engine starts with no
+     * statistics registered.
+     */
+    public StatisticsEngine()
+    {
+        accumulators = new ArrayList<StatisticAccumulator>();
+        vocabulary = null;
+        sentenceOpen = false;
+        phraseOpen = false;
+    }
+
+    /**
+     * Creates an engine with the five statistics that are used to find the
+     * author of a document, registered in the order of the constants above.
+     * 
+     * @return a new engine with the standard statistics registered.
+     */
+    public static StatisticsEngine standard()
+    {
+        StatisticsEngine engine = new StatisticsEngine();
+        engine.register(new AverageWordLengthAccumulator());
+        engine.register(new TypeTokenRatioAccumulator(engine.getVocabulary()));
+        engine.register(new HapaxLegomanaAccumulator(engine.getVocabulary()));
+        engine.register(new AverageWordsPerSentenceAccumulator());
+        engine.register(new SentenceComplexityAccumulator());
+        return engine;
+    }
+
+    /**
+     * Creates an engine with the five standard statistics, except that the
+     * type-token and hapax legomana ratios are estimated in a fixed amount of
+     * memory instead of being counted exactly (see
+     * ApproximateTypeTokenRatioAccumulator and
+     * ApproximateHapaxLegomanaAccumulator). The engine keeps no Vocabulary,
+     * so its memory does not grow with the number of different words.
+     * 
+     * @param precision
+     *            The precision of the HyperLogLog used for the type count;
+     *            14 uses 16 KB for a relative error of about 0.8%
+     * @param sampleSize
+     *            The number of different words sampled for the hapax count;
+     *            4096 uses about 100 KB for a relative error of a few percent
+     * @return a new engine with the approximate statistics registered.
+     */
+    public static StatisticsEngine approximate(int precision, int sampleSize)
+    {
+        StatisticsEngine engine = new StatisticsEngine();
+        engine.register(new AverageWordLengthAccumulator());
+        engine.register(new ApproximateTypeTokenRatioAccumulator(precision));
+        engine.register(new ApproximateHapaxLegomanaAccumulator(sampleSize));
+        engine.register(new AverageWordsPerSentenceAccumulator());
+        engine.register(new SentenceComplexityAccumulator());
+        return engine;
+    }
+
+    /**
+     * Registers a statistic with this engine. It receives everything that is
+     * streamed through the engine from now on.
+     * 
+     * @param accumulator
+     *            The statistic to be registered
+     */
+    public void register(StatisticAccumulator accumulator)
+    {
+        accumulators.add(accumulator);
+    }
+
+    /**
+     * returns a registered statistic, for statistics whose result is more
+     * than the single value of getValue().
+     * 
+     * @param index
+     *            The position of the statistic, in the order it was
+     *            registered
+     * @return the accumulator of the statistic.
+     */
+    public StatisticAccumulator getAccumulator(int index)
+    {
+        return accumulators.get(index);
+    }
+
+    /**
+     * Returns the vocabulary of the words streamed through this engine. The
+     * vocabulary is created the first time it is asked for, and from then on
+     * every word is added to it before it is sent to the statistics.
+     * 
+     * @return the vocabulary of this engine.
+     */
+    public Vocabulary getVocabulary()
+    {
+        if (vocabulary == null)
+        {
+            vocabulary = new Vocabulary();
+        }
+        return vocabulary;
+    }
+
+    /**
+     * Streams every token of the scanner through the engine until the end of
+     * the file is reached.
+     * 
+     * @param scanner
+     *            The scanner to read tokens from
+     */
+    public void run(Scanner scanner)
+    {
+        long start = PipelineMetrics.start();
+        long scanned = scanner.getInstrumentedNanos();
+        long words = wordCount;
+        long phrases = phraseCount;
+        long sentences = sentenceCount;
+        Token t = scanner.nextToken();
+        while (!t.getType().equals(Scanner.TOKEN_TYPE.END_OF_FILE))
+        {
+            accept(t);
+            t = scanner.nextToken();
+        }
+        finish();
+        if (start != 0)
+        {
+            report(start, scanner.getInstrumentedNanos() - scanned, words,
+                    phrases, sentences);
+        }
+    }
+
+    /**
+     * Streams the words, phrases and sentences of an already parsed document
+     * through the engine. The sentences and phrases are read in place through
+     * their index accessors, so nothing is copied.
+     * 
+     * @param d
+     *            The parsed document
+     */
+    public void run(Document d)
+    {
+        long start = PipelineMetrics.start();
+        long words = wordCount;
+        long phrases = phraseCount;
+        long sentenceTotal = sentenceCount;
+        ArrayList<Sentence> sentences = d.getSentenceCollection();
+        for (int i = 0; i < sentences.size(); i++)
+        {
+            accept(sentences.get(i));
+        }
+        if (start != 0)
+        {
+            report(start, 0, words, phrases, sentenceTotal);
+        }
+    }
+
+    /**
+     * Streams sentences through the engine as they are pulled from an
+     * iterator, such as Document.sentenceIterator(). The engine keeps no
+     * reference to a sentence once it has been counted.
+     * 
+     * @param sentences
+     *            The iterator to pull sentences from
+     */
+    public void run(Iterator<Sentence> sentences)
+    {
+        long start = PipelineMetrics.start();
+        long words = wordCount;
+        long phrases = phraseCount;
+        long sentenceTotal = sentenceCount;
+        while (sentences.hasNext())
+        {
+            accept(sentences.next());
+        }
+        if (start != 0)
+        {
+            report(start, 0, words, phrases, sentenceTotal);
+        }
+    }
+
+    /**
+     * Streams the words and phrases of one parsed sentence through the
+     * engine, followed by the end of the sentence. The phrases and words are
+     * read in place through their index accessors, so nothing is copied.
+     * 
+     * @param s
+     *            The sentence to be counted
+     */
+    public void accept(Sentence s)
+    {
+        for (int j = 0; j < s.getPhraseCount(); j++)
+        {
+            Phrase p = s.getPhrase(j);
+            for (int k = 0; k < p.getTokenCount(); k++)
+            {
+                addWord(p.getToken(k).getStr());
+            }
+            endPhrase();
+        }
+        endSentence();
+    }
+
+    /**
+     * Streams the words, phrases and sentences of a compact document through
+     * the engine. The document already counts its words, so its vocabulary is
+     * merged into the engine's in one step, and the words themselves are only
+     * sent to the registered statistics.
+     * 
+     * @param d
+     *            The compact document
+     */
+    public void run(CompactDocument d)
+    {
+        long start = PipelineMetrics.start();
+        long words = wordCount;
+        long phrases = phraseCount;
+        long sentences = sentenceCount;
+        if (vocabulary != null)
+        {
+            vocabulary.merge(d.getVocabulary());
+        }
+        int accumulatorCount = accumulators.size();
+        for (int s = 0; s < d.getSentenceCount(); s++)
+        {
+            for (int p = d.getFirstPhrase(s); p < d.getPhraseEnd(s); p++)
+            {
+                for (int w = d.getFirstWord(p); w < d.getWordEnd(p); w++)
+                {
+                    String word = d.getWord(w);
+                    for (int i = 0; i < accumulatorCount; i++)
+                    {
+                        accumulators.get(i).addWord(word);
+                    }
+                }
+                wordCount += d.getWordEnd(p) - d.getFirstWord(p);
+                endPhrase();
+            }
+            endSentence();
+        }
+        if (start != 0)
+        {
+            report(start, 0, words, phrases, sentences);
+        }
+    }
+
+    /**
+     * Reports the time of a run and the words, phrases and sentences it
+     * streamed to PipelineMetrics.
+     * 
+     * @param start
+     *            The time the run started, from PipelineMetrics.start()
+     * @param scanned
+     *            The time spent in the Scanner during the run
+     * @param words
+     *            The number of words before the run
+     * @param phrases
+     *            The number of phrases before the run
+     * @param sentences
+     *            The number of sentences before the run
+     */
+    private void report(long start, long scanned, long words, long phrases,
+            long sentences)
+    {
+        PipelineMetrics.stop(PipelineMetrics.Stage.STATISTICS, start, scanned,
+                wordCount - words);
+        PipelineMetrics.count(PipelineMetrics.Counter.WORDS, wordCount - words);
+        PipelineMetrics.count(PipelineMetrics.Counter.PHRASES, phraseCount
+                - phrases);
+        PipelineMetrics.count(PipelineMetrics.Counter.SENTENCES,
+                sentenceCount - sentences);
+    }
+
+    /**
+     * Streams a single token through the engine. A token that does not belong
+     * to an open phrase starts a new sentence or phrase, the same way
+     * Document.parseSentence() and Document.parsePhrase() do. Digits and
+     * unknown tokens belong to a phrase but are not counted as words.
+     * 
+     * @param t
+     *            The token to be streamed
+     */
+    public void accept(Token t)
+    {
+        Scanner.TOKEN_TYPE type = t.getType();
+        if (type.equals(Scanner.TOKEN_TYPE.END_OF_FILE))
+        {
+            finish();
+            return;
+        }
+        if (!phraseOpen)
+        {
+            if (type.equals(Scanner.TOKEN_TYPE.END_OF_SENTENCE))
+            {
+                // either an empty sentence, or a sentence whose last phrase
+                // was already ended by a phrase terminator
+                endSentence();
+                sentenceOpen = false;
+                return;
+            }
+            sentenceOpen = true;
+            phraseOpen = true;
+        }
+        if (type.equals(Scanner.TOKEN_TYPE.WORD))
+        {
+            addWord(t.getStr());
+        }
+        else if (type.equals(Scanner.TOKEN_TYPE.END_OF_PHRASE))
+        {
+            endPhrase();
+            phraseOpen = false;
+        }
+        else if (type.equals(Scanner.TOKEN_TYPE.END_OF_SENTENCE))
+        {
+            endPhrase();
+            endSentence();
+            phraseOpen = false;
+            sentenceOpen = false;
+        }
+    }
+
+    /**
+     * Ends the phrase and sentence that are still open at the end of the
+     * input. Calling this more than once has no further effect.
+     */
+    public void finish()
+    {
+        if (phraseOpen)
+        {
+            endPhrase();
+            phraseOpen = false;
+        }
+        if (sentenceOpen)
+        {
+            endSentence();
+            sentenceOpen = false;
+        }
+    }
+
+    /**
+     * Checks if a sentence has been started by the tokens streamed so far but
+     * has not ended yet.
+     * 
+     * @return true if a sentence is open, or false otherwise.
+     */
+    public boolean isSentenceOpen()
+    {
+        return sentenceOpen;
+    }
+
+    /**
+     * Checks if a phrase has been started by the tokens streamed so far but
+     * has not ended yet.
+     * 
+     * @return true if a phrase is open, or false otherwise.
+     */
+    public boolean isPhraseOpen()
+    {
+        return phraseOpen;
+    }
+
+    /**
+     * Merges the totals of another engine into this one. Both engines must
+     * have the same types of statistics registered in the same order. The
+     * other engine is expected to have been run over the input that directly
+     * follows the input of this engine, starting at a sentence boundary.
+     * 
+     * @param other
+     *            The engine to be merged into this one
+     */
+    public void merge(StatisticsEngine other)
+    {
+        if (other.vocabulary != null)
+        {
+            getVocabulary().merge(other.vocabulary);
+        }
+        for (int i = 0; i < accumulators.size(); i++)
+        {
+            accumulators.get(i).merge(other.accumulators.get(i));
+        }
+    }
+
+    /**
+     * Returns the value of one of the registered statistics.
+     * 
+     * @param index
+     *            The position the statistic was registered at
+     * @return the value of the statistic.
+     */
+    public double getValue(int index)
+    {
+        return accumulators.get(index).getValue();
+    }
+
+    /**
+     * Returns the values of all of the registered statistics, in the order
+     * they were registered.
+     * 
+     * @return an ArrayList of the values of the statistics.
+     */
+    public ArrayList<Double> getValues()
+    {
+        ArrayList<Double> answer = new ArrayList<Double>();
+        for (StatisticAccumulator a : accumulators)
+        {
+            answer.add(a.getValue());
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the values of all of the registered statistics as an array, in
+     * the order they were registered.
+     * 
+     * @return an array of the values of the statistics.
+     */
+    public double[] getValueArray()
+    {
+        double[] answer = new double[accumulators.size()];
+        for (int i = 0; i < answer.length; i++)
+        {
+            answer[i] = accumulators.get(i).getValue();
+        }
+        return answer;
+    }
+
+    /**
+     * Sends a word to every registered statistic.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    private void addWord(String word)
+    {
+        wordCount++;
+        if (vocabulary != null)
+        {
+            vocabulary.add(word);
+        }
+        for (int i = 0; i < accumulators.size(); i++)
+        {
+            accumulators.get(i).addWord(word);
+        }
+    }
+
+    /**
+     * Sends the end of a phrase to every registered statistic.
+     */
+    private void endPhrase()
+    {
+        phraseCount++;
+        for (int i = 0; i < accumulators.size(); i++)
+        {
+            accumulators.get(i).endPhrase();
+        }
+    }
+
+    /**
+     * Sends the end of a sentence to every registered statistic.
+     */
+    private void endSentence()
+    {
+        sentenceCount++;
+        for (int i = 0; i < accumulators.size(); i++)
+        {
+            accumulators.get(i).endSentence();
+        }
+    }
+}
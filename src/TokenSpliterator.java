@@ -0,0 +1,225 @@
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A TokenSpliterator feeds the tokens of a text to java.util.stream, in the
+ * order the Scanner returns them, leaving out the end of file token. The text
+ * is held in a char array, so a spliterator can be split into two that
+ * each scan half of it, which lets parallel streams and collectors spread the
+ * scanning over several threads.
+ * 
+ * A text is only cut where the Scanner would end a token anyway, so the
+ * halves together return exactly the tokens of the whole text. A cut is put
+ * just after a sentence terminator when one is close to the middle, and
+ * otherwise before the first character after the middle that cannot be part
+ * of a word.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class TokenSpliterator implements Spliterator<Token>
+{
+    /**
+     * Texts shorter than this are not split, since scanning them is cheaper
+     * than handing them to another thread.
+     */
+    private static final int MIN_SPLIT = 8192;
+    /**
+     * How far past the middle a sentence terminator is looked for.
+     */
+    private static final int SENTENCE_SEARCH = 2048;
+    /**
+     * The rough number of characters per token, used to estimate the size.
+     */
+    private static final int CHARACTERS_PER_TOKEN = 5;
+
+    private char[] text;
+    private int start;
+    private int end;
+    /**
+     * The scanner of the text, or null until the first token is asked for.
+     * Once it is made, the spliterator no longer splits.
+     */
+    private Scanner scanner;
+
+    /**
+     * Constructor for a TokenSpliterator over a whole text.
+     * 
+     * @param text
+     *            The characters of the text, with line breaks already
+     *            replaced by spaces. The array must not be changed afterwards.
+     */
+    public TokenSpliterator(char[] text)
+    {
+        this(text, 0, text.length);
+    }
+
+    /**
+     * Constructor for a TokenSpliterator over part of a text.
+     * 
+     * @param text
+     *            The characters of the text
+     * @param start
+     *            The position of the first character to scan
+     * @param end
+     *            The position just after the last character to scan
+     */
+    public TokenSpliterator(char[] text, int start, int end)
+    {
+        this.text = text;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Reads a file and creates a stream of its tokens. The file is read the
+     * same way FindAuthor reads a document.
+     * 
+     * @param file
+     *            The file path of the text
+     * @param parallel
+     *            true for a parallel stream, false for a sequential one
+     * @return a stream of the tokens of the file.
+     * @throws IOException
+     *             if the file is not found.
+     */
+    public static Stream<Token> tokens(String file, boolean parallel)
+            throws IOException
+    {
+        Reader reader = FindAuthor.openDocument(file);
+        try
+        {
+            return StreamSupport.stream(new TokenSpliterator(ParallelAnalyzer
+                    .readAll(reader)), parallel);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Passes the next token to an action.
+     * 
+     * @param action
+     *            The action to receive the token
+     * @return true if there was a token, or false if the text is finished.
+     */
+    public boolean tryAdvance(Consumer<? super Token> action)
+    {
+        if (scanner == null)
+        {
+            scanner = new Scanner(new CharArrayReader(text, start, end
+                    - start));
+        }
+        Token t = scanner.nextToken();
+        if (t.getType() == Scanner.TOKEN_TYPE.END_OF_FILE)
+        {
+            return false;
+        }
+        action.accept(t);
+        return true;
+    }
+
+    /**
+     * Passes every remaining token to an action.
+     * 
+     * @param action
+     *            The action to receive the tokens
+     */
+    public void forEachRemaining(Consumer<? super Token> action)
+    {
+        while (tryAdvance(action))
+        {
+        }
+    }
+
+    /**
+     * Splits off the first part of the text, if the text is long enough and
+     * no token has been taken yet.
+     * 
+     * @return a spliterator over the first part, which this one no longer
+     *         covers, or null if the text is not split.
+     */
+    public Spliterator<Token> trySplit()
+    {
+        if (scanner != null)
+        {
+            return null;
+        }
+        int cut = findCut(text, start, end);
+        if (cut < 0)
+        {
+            return null;
+        }
+        TokenSpliterator first = new TokenSpliterator(text, start, cut);
+        start = cut;
+        return first;
+    }
+
+    /**
+     * Finds a position near the middle of part of a text where it can be cut
+     * without changing its tokens.
+     * 
+     * @param text
+     *            The characters of the text
+     * @param start
+     *            The position of the first character of the part
+     * @param end
+     *            The position just after the last character of the part
+     * @return the position to cut at, or -1 if the part is too short or has
+     *         no place to cut.
+     */
+    static int findCut(char[] text, int start, int end)
+    {
+        if (end - start < MIN_SPLIT)
+        {
+            return -1;
+        }
+        int middle = start + (end - start) / 2;
+        int limit = Math.min(end, middle + SENTENCE_SEARCH);
+        int cut = ParallelAnalyzer.nextSentenceBoundary(text, middle, limit);
+        if (cut < limit)
+        {
+            return cut;
+        }
+        // a cut between two characters is safe unless both are word parts
+        for (int i = middle; i < end; i++)
+        {
+            if (!Scanner.isWordPart(text[i - 1])
+                    || !Scanner.isWordPart(text[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Estimates the number of tokens left from the number of characters.
+     * 
+     * @return the estimated number of tokens.
+     */
+    public long estimateSize()
+    {
+        return (end - start) / CHARACTERS_PER_TOKEN + 1;
+    }
+
+    /**
+     * Describes the spliterator: its tokens are in order, never null, and
+     * the text cannot change.
+     * 
+     * @return the characteristics of the spliterator.
+     */
+    public int characteristics()
+    {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
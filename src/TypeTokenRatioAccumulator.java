@@ -0,0 +1,103 @@
+/**
+ * Accumulates the type-token ratio of a document, the number of different
+ * words divided by the total number of words. Both numbers are read from a
+ * Vocabulary, which is either the accumulator's own or the one filled by the
+ * StatisticsEngine the accumulator is registered with.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class TypeTokenRatioAccumulator implements StatisticAccumulator
+{
+    private Vocabulary vocabulary;
+    /**
+     * True if the vocabulary belongs to this accumulator, or false if it is
+     * filled and merged by a StatisticsEngine.
+     */
+    private boolean ownsVocabulary;
+
+    /**
+     * Constructor for a TypeTokenRatioAccumulator that keeps its own
+     * vocabulary. It adds every word to that vocabulary itself, and merging
+     * another accumulator merges the other's vocabulary into it.
+     */
+    public TypeTokenRatioAccumulator()
+    {
+        this.vocabulary = new Vocabulary();
+        ownsVocabulary = true;
+    }
+
+    /**
+     * Constructor for a TypeTokenRatioAccumulator that reads the vocabulary of
+     * a StatisticsEngine. The engine adds the words to the vocabulary and
+     * merges it, so this accumulator neither adds words nor merges anything.
+     * 
+     * @param vocabulary
+     *            The vocabulary of the engine this accumulator is registered
+     *            with (see StatisticsEngine.getVocabulary())
+     */
+    public TypeTokenRatioAccumulator(Vocabulary vocabulary)
+    {
+        this.vocabulary = vocabulary;
+        ownsVocabulary = false;
+    }
+
+    /**
+     * Adds the word to the vocabulary, unless the engine already has.
+     * 
+     * @param word
+     *            The string of the word token
+     */
+    public void addWord(String word)
+    {
+        if (ownsVocabulary)
+        {
+            vocabulary.add(word);
+        }
+    }
+
+    /**
+     * Phrases do not affect the type-token ratio.
+     */
+    public void endPhrase()
+    {
+    }
+
+    /**
+     * Sentences do not affect the type-token ratio.
+     */
+    public void endSentence()
+    {
+    }
+
+    /**
+     * Merges the vocabulary of another accumulator into this one's. An
+     * accumulator reading an engine's vocabulary merges nothing, since
+     * StatisticsEngine.merge() merges the vocabulary itself, before the
+     * accumulators.
+     * 
+     * @param other
+     *            a TypeTokenRatioAccumulator
+     */
+    public void merge(StatisticAccumulator other)
+    {
+        TypeTokenRatioAccumulator o = (TypeTokenRatioAccumulator) other;
+        if (ownsVocabulary)
+        {
+            vocabulary.merge(o.vocabulary);
+        }
+    }
+
+    /**
+     * Returns the type-token ratio.
+     * 
+     * @return the number of different words divided by the number of words.
+     */
+    public double getValue()
+    {
+        return (double) vocabulary.getTypeCount()
+                / (double) vocabulary.getTokenCount();
+    }
+}
@@ -0,0 +1,272 @@
+import java.util.Arrays;
+
+/**
+ * A Vocabulary gives every distinct word of a document a small int id and
+ * counts how many times each id has been seen. Ids are handed out in the
+ * order words are first seen, starting at 0. The words are found through an
+ * open addressing table of ids, and since the ids have no gaps, the counts
+ * are kept in an int array indexed by id. After a word has been seen once no
+ * further objects are created for it.
+ * 
+ * The number of types (distinct words), the number of hapax legomena (words
+ * seen exactly once) and the number of tokens are kept up to date as words
+ * are added, so they are available at any time in O(1).
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class Vocabulary
+{
+    /**
+     * The words, indexed by id.
+     */
+    private String[] words;
+    /**
+     * The table used to find the id of a word. A slot holds the id of a word
+     * plus one, or 0 if the slot is empty.
+     */
+    private int[] slots;
+    /**
+     * The number of times each id has been added, indexed by id. It is
+     * always as long as words.
+     */
+    private int[] counts;
+    private int typeCount;
+    private int hapaxCount;
+    private long tokenCount;
+
+    /**
+     * Constructor for an empty Vocabulary.
+     */
+    public Vocabulary()
+    {
+        words = new String[64];
+        slots = new int[128];
+        counts = new int[64];
+        typeCount = 0;
+        hapaxCount = 0;
+        tokenCount = 0;
+    }
+
+    /**
+     * Adds one occurrence of a word, giving it an id if it has not been seen
+     * before.
+     * 
+     * @param word
+     *            The word to be added
+     * @return the id of the word.
+     */
+    public int add(String word)
+    {
+        return add(word, 1);
+    }
+
+    /**
+     * Adds several occurrences of a word, giving it an id if it has not been
+     * seen before.
+     * 
+     * @param word
+     *            The word to be added
+     * @param occurrences
+     *            The number of times the word was seen, at least 1
+     * @return the id of the word.
+     */
+    public int add(String word, int occurrences)
+    {
+        int id = intern(word);
+        int after = counts[id] + occurrences;
+        int before = after - occurrences;
+        counts[id] = after;
+        if (before == 1)
+        {
+            hapaxCount--;
+        }
+        if (after == 1)
+        {
+            hapaxCount++;
+        }
+        tokenCount += occurrences;
+        return id;
+    }
+
+    /**
+     * Finds the id of a word, giving it the next id if it is new. The count
+     * of the word is not changed.
+     * 
+     * @param word
+     *            The word to be interned
+     * @return the id of the word.
+     */
+    private int intern(String word)
+    {
+        int mask = slots.length - 1;
+        int slot = spread(word.hashCode()) & mask;
+        while (slots[slot] != 0)
+        {
+            int id = slots[slot] - 1;
+            if (words[id].equals(word))
+            {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int id = typeCount;
+        typeCount++;
+        if (id == words.length)
+        {
+            words = Arrays.copyOf(words, words.length * 2);
+            counts = Arrays.copyOf(counts, words.length);
+        }
+        words[id] = word;
+        slots[slot] = id + 1;
+        if (typeCount * 2 > slots.length)
+        {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Doubles the table of ids and puts every word back into it.
+     */
+    private void rehash()
+    {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < typeCount; id++)
+        {
+            int slot = spread(words[id].hashCode()) & mask;
+            while (slots[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Spreads the bits of a String hash code over the whole int.
+     * 
+     * @param h
+     *            The hash code
+     * @return the mixed hash.
+     */
+    private static int spread(int h)
+    {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the id of a word without adding it.
+     * 
+     * @param word
+     *            The word to be looked up
+     * @return the id of the word, or -1 if it has not been seen.
+     */
+    public int getId(String word)
+    {
+        int mask = slots.length - 1;
+        int slot = spread(word.hashCode()) & mask;
+        while (slots[slot] != 0)
+        {
+            int id = slots[slot] - 1;
+            if (words[id].equals(word))
+            {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the word with the given id.
+     * 
+     * @param id
+     *            An id handed out by this vocabulary
+     * @return the word of the id.
+     */
+    public String getWord(int id)
+    {
+        return words[id];
+    }
+
+    /**
+     * Returns the number of times the word with the given id has been added.
+     * 
+     * @param id
+     *            An id handed out by this vocabulary
+     * @return the count of the id.
+     */
+    public int getCount(int id)
+    {
+        return counts[id];
+    }
+
+    /**
+     * Returns the number of distinct words that have been added. Ids run from
+     * 0 to getTypeCount() - 1.
+     * 
+     * @return the number of types.
+     */
+    public int getTypeCount()
+    {
+        return typeCount;
+    }
+
+    /**
+     * Returns the number of distinct words that have been added exactly once.
+     * 
+     * @return the number of hapax legomena.
+     */
+    public int getHapaxCount()
+    {
+        return hapaxCount;
+    }
+
+    /**
+     * Returns the total number of words that have been added.
+     * 
+     * @return the number of tokens.
+     */
+    public long getTokenCount()
+    {
+        return tokenCount;
+    }
+
+    /**
+     * Returns the frequency spectrum of the vocabulary, which maps each count
+     * to the number of distinct words that have that count. The entry for 1
+     * is the number of hapax legomena.
+     * 
+     * @return a new IntIntHashMap from count to number of words.
+     */
+    public IntIntHashMap getFrequencySpectrum()
+    {
+        IntIntHashMap spectrum = new IntIntHashMap();
+        for (int id = 0; id < typeCount; id++)
+        {
+            spectrum.increment(counts[id]);
+        }
+        return spectrum;
+    }
+
+    /**
+     * Adds every word of another vocabulary to this one, with its count. The
+     * words keep their ids in this vocabulary, and words that are new here
+     * are given the next ids in the order of the other vocabulary.
+     * 
+     * @param other
+     *            The vocabulary to be merged into this one
+     */
+    public void merge(Vocabulary other)
+    {
+        for (int id = 0; id < other.typeCount; id++)
+        {
+            add(other.words[id], other.counts[id]);
+        }
+    }
+}
@@ -0,0 +1,820 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The WeightTuner searches for the weights FindAuthor gives each statistic,
+ * using a labelled corpus laid out the way ProfileBuilder expects: one
+ * subdirectory per author, holding that author's texts. A set of weights is
+ * scored by leave-one-out cross-validation. Every text is held out in turn,
+ * its author's profile is built from the author's other texts, and the text
+ * counts as correct if findClosest() would pick its own author out of that
+ * profile and the full profiles of every other author.
+ * 
+ * Every text is parsed only once, when the tuner is created. The difference
+ * between each held-out text and each profile, statistic by statistic, is
+ * kept in a single array. The distance under any weights is then a
+ * dot product with that array, so a candidate is scored without touching
+ * the corpus again. Candidates come from a grid or from a random search, and
+ * they are scored in parallel, a slice of them per task.
+ * 
+ * Authors with only one text are still compared against, but their text
+ * cannot be held out, since there would be nothing left to build their
+ * profile from.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class WeightTuner
+{
+    /**
+     * The number of candidates a random search tries from the command line.
+     */
+    public static final int DEFAULT_CANDIDATES = 10000;
+    /**
+     * The factors of the default weights tried by a grid search. Six
+     * factors for five statistics give 7776 candidates.
+     */
+    public static final double[] DEFAULT_GRID = { 0, 0.25, 0.5, 1, 2, 4 };
+    /**
+     * A random candidate scales each default weight by a factor between
+     * 1 / RANDOM_RANGE and RANDOM_RANGE, spread evenly on a log scale.
+     */
+    private static final double RANDOM_RANGE = 8;
+    /**
+     * The number of slices the candidates are cut into for each thread, so
+     * that a slow thread does not hold up the search.
+     */
+    private static final int SLICES_PER_THREAD = 4;
+
+    private static final int STATISTIC_COUNT = AuthorProfile.STATISTIC_COUNT;
+
+    private String[] authors;
+    /**
+     * The author of each text that is held out.
+     */
+    private int[] labels;
+    /**
+     * For held-out text t, author a and statistic k, the absolute difference
+     * between the text and the profile of the author is at position
+     * (t * authors.length + a) * STATISTIC_COUNT + k.
+     */
+    private double[] differences;
+
+    /**
+     * The result of scoring one set of weights.
+     */
+    public static final class Result
+    {
+        private double[] weights;
+        private int correct;
+        private int total;
+        private double margin;
+
+        /**
+         * Constructor for the Result class.
+         * 
+         * @param weights
+         *            The weights that were scored, which are copied
+         * @param correct
+         *            The number of held-out texts given their own author
+         * @param total
+         *            The number of held-out texts
+         * @param margin
+         *            The average relative margin of the texts
+         */
+        private Result(double[] weights, int correct, int total,
+                double margin)
+        {
+            this.weights = weights.clone();
+            this.correct = correct;
+            this.total = total;
+            this.margin = margin;
+        }
+
+        /**
+         * returns the weights that were scored.
+         * 
+         * @return a copy of the weights.
+         */
+        public double[] getWeights()
+        {
+            return weights.clone();
+        }
+
+        /**
+         * returns the number of held-out texts that were given their own
+         * author.
+         * 
+         * @return the number of correct texts.
+         */
+        public int getCorrect()
+        {
+            return correct;
+        }
+
+        /**
+         * returns the number of held-out texts.
+         * 
+         * @return the number of texts scored.
+         */
+        public int getTotal()
+        {
+            return total;
+        }
+
+        /**
+         * returns the fraction of held-out texts given their own author.
+         * 
+         * @return the accuracy, between 0 and 1.
+         */
+        public double getAccuracy()
+        {
+            if (total == 0)
+            {
+                return 0;
+            }
+            return (double) correct / total;
+        }
+
+        /**
+         * returns the average relative margin of the held-out texts. The
+         * relative margin of a text is the distance to the closest other
+         * author minus the distance to its own author, divided by their sum.
+         * It is positive when the text is correct, and does not change when
+         * every weight is scaled by the same factor.
+         * 
+         * @return the average relative margin, between -1 and 1.
+         */
+        public double getMargin()
+        {
+            return margin;
+        }
+
+        /**
+         * Checks if this result is better than another: more texts correct,
+         * or as many correct with a larger margin.
+         * 
+         * @param other
+         *            The result to be compared to
+         * @return true if this result is strictly better.
+         */
+        public boolean isBetterThan(Result other)
+        {
+            if (correct != other.correct)
+            {
+                return correct > other.correct;
+            }
+            return margin > other.margin;
+        }
+
+        /**
+         * Overrides java.lang.Object.toString to print the weights and how
+         * well they did.
+         */
+        public String toString()
+        {
+            StringBuilder b = new StringBuilder();
+            for (int k = 0; k < weights.length; k++)
+            {
+                if (k > 0)
+                {
+                    b.append(' ');
+                }
+                b.append(weights[k]);
+            }
+            return b + " (" + correct + "/" + total + " correct, margin "
+                    + margin + ")";
+        }
+    }
+
+    /**
+     * The statistics of one author's texts, and the profiles built from them.
+     */
+    private static class AuthorFeatures
+    {
+        private String name;
+        /**
+         * The statistics of all of the author's texts read together.
+         */
+        private double[] profile;
+        /**
+         * The statistics of each text on its own.
+         */
+        private double[][] texts;
+        /**
+         * For each text, the statistics of all of the author's other texts
+         * read together, or null if the author has only one text.
+         */
+        private double[][] heldOut;
+    }
+
+    /**
+     * The counts of one text that its author's profile loses when the text
+     * is held out.
+     */
+    private static class TextCounts
+    {
+        private long words;
+        private long letters;
+        private long phrases;
+        private long sentences;
+        /**
+         * The id of each different word of the text in the vocabulary of all
+         * of the author's texts, and how often the text uses it.
+         */
+        private int[] ids;
+        private int[] counts;
+
+        /**
+         * Constructor for the TextCounts class.
+         * 
+         * @param engine
+         *            The engine of the text
+         * @param total
+         *            The vocabulary of all of the author's texts, which the
+         *            text has already been merged into
+         */
+        private TextCounts(StatisticsEngine engine, Vocabulary total)
+        {
+            Vocabulary vocabulary = engine.getVocabulary();
+            SentenceComplexityAccumulator complexity =
+                    (SentenceComplexityAccumulator) engine.getAccumulator(
+                            StatisticsEngine.SENTENCE_COMPLEXITY);
+            words = vocabulary.getTokenCount();
+            phrases = complexity.getPhraseCount();
+            sentences = complexity.getSentenceCount();
+            ids = new int[vocabulary.getTypeCount()];
+            counts = new int[ids.length];
+            for (int id = 0; id < ids.length; id++)
+            {
+                String word = vocabulary.getWord(id);
+                ids[id] = total.getId(word);
+                counts[id] = vocabulary.getCount(id);
+                letters += (long) counts[id] * word.length();
+            }
+        }
+    }
+
+    /**
+     * Constructor for the WeightTuner class. Every text of the corpus is
+     * analyzed, and the tuner keeps only the differences between the texts
+     * and the profiles.
+     * 
+     * @param corpus
+     *            The directory holding one subdirectory per author
+     * @param executor
+     *            The executor the authors are analyzed on. It is not shut
+     *            down by this class.
+     * @throws IOException
+     *             if a text cannot be read, or the corpus has fewer than two
+     *             authors.
+     */
+    public WeightTuner(File corpus, ExecutorService executor)
+            throws IOException
+    {
+        File[] dirs = corpus.listFiles();
+        if (dirs == null)
+        {
+            throw new IOException(corpus + " is not a directory");
+        }
+        Arrays.sort(dirs);
+        List<Future<AuthorFeatures>> futures =
+                new ArrayList<Future<AuthorFeatures>>();
+        for (final File dir : dirs)
+        {
+            if (dir.isDirectory())
+            {
+                futures.add(executor.submit(new Callable<AuthorFeatures>()
+                {
+                    public AuthorFeatures call() throws IOException
+                    {
+                        return analyzeAuthor(dir);
+                    }
+                }));
+            }
+        }
+        List<AuthorFeatures> features = new ArrayList<AuthorFeatures>();
+        try
+        {
+            for (Future<AuthorFeatures> f : futures)
+            {
+                AuthorFeatures a = f.get();
+                if (a != null)
+                {
+                    features.add(a);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while analyzing "
+                    + corpus);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        finally
+        {
+            for (Future<AuthorFeatures> f : futures)
+            {
+                f.cancel(true);
+            }
+        }
+        if (features.size() < 2)
+        {
+            throw new IOException(corpus + " needs at least two authors");
+        }
+        buildDifferences(features);
+    }
+
+    /**
+     * Analyzes every text of an author, one after another, and builds the
+     * author's profile and the profile without each text. Each text is
+     * merged into the author's total once, and keeps only its own counts.
+     * The profile without a text is the total less those counts, so it costs
+     * only the different words of the text, and the engines of the texts do
+     * not have to be kept.
+     * 
+     * @param dir
+     *            The subdirectory of the author
+     * @return the features of the author, or null if the subdirectory has no
+     *         files.
+     * @throws IOException
+     *             if a text cannot be read.
+     */
+    private static AuthorFeatures analyzeAuthor(File dir) throws IOException
+    {
+        File[] files = dir.listFiles();
+        if (files == null)
+        {
+            return null;
+        }
+        Arrays.sort(files);
+        StatisticsEngine total = StatisticsEngine.standard();
+        List<double[]> texts = new ArrayList<double[]>();
+        List<TextCounts> counts = new ArrayList<TextCounts>();
+        for (File text : files)
+        {
+            if (text.isFile())
+            {
+                StatisticsEngine engine = FindAuthor.analyze(text.getPath());
+                total.merge(engine);
+                texts.add(statistics(engine));
+                counts.add(new TextCounts(engine, total.getVocabulary()));
+            }
+        }
+        if (texts.isEmpty())
+        {
+            return null;
+        }
+        int n = texts.size();
+        AuthorFeatures a = new AuthorFeatures();
+        a.name = dir.getName().replace('.', ' ');
+        a.profile = statistics(total);
+        a.texts = texts.toArray(new double[n][]);
+        a.heldOut = new double[n][];
+        if (n > 1)
+        {
+            TextCounts all = new TextCounts(total, total.getVocabulary());
+            for (int i = 0; i < n; i++)
+            {
+                a.heldOut[i] = heldOut(all, counts.get(i),
+                        total.getVocabulary());
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Calculates the statistics of an author's texts without one of them,
+     * the same as merging the engines of the other texts.
+     * 
+     * @param all
+     *            The counts of all of the author's texts
+     * @param text
+     *            The counts of the text that is left out
+     * @param total
+     *            The vocabulary of all of the author's texts
+     * @return the statistics of the other texts read together.
+     */
+    private static double[] heldOut(TextCounts all, TextCounts text,
+            Vocabulary total)
+    {
+        long words = all.words - text.words;
+        long sentences = all.sentences - text.sentences;
+        long types = total.getTypeCount();
+        long hapaxes = total.getHapaxCount();
+        for (int k = 0; k < text.ids.length; k++)
+        {
+            int before = total.getCount(text.ids[k]);
+            int after = before - text.counts[k];
+            if (after == 0)
+            {
+                types--;
+            }
+            if (before == 1)
+            {
+                hapaxes--;
+            }
+            if (after == 1)
+            {
+                hapaxes++;
+            }
+        }
+        double[] stats = new double[STATISTIC_COUNT];
+        stats[StatisticsEngine.AVERAGE_WORD_LENGTH] = (double) (all.letters
+                - text.letters) / words;
+        stats[StatisticsEngine.TYPE_TOKEN_RATIO] = (double) types
+                / (double) words;
+        stats[StatisticsEngine.HAPAX_LEGOMANA] = (double) hapaxes
+                / (double) words;
+        stats[StatisticsEngine.AVERAGE_WORDS_PER_SENTENCE] = (double) words
+                / (double) sentences;
+        stats[StatisticsEngine.SENTENCE_COMPLEXITY] = (double) (all.phrases
+                - text.phrases) / (double) sentences;
+        return stats;
+    }
+
+    /**
+     * Returns the statistics of an engine that are stored in a profile.
+     * 
+     * @param engine
+     *            The engine to be read
+     * @return the first STATISTIC_COUNT values of the engine.
+     */
+    private static double[] statistics(StatisticsEngine engine)
+    {
+        return Arrays.copyOf(engine.getValueArray(), STATISTIC_COUNT);
+    }
+
+    /**
+     * Fills in the authors, labels and differences from the features of
+     * every author.
+     * 
+     * @param features
+     *            The features of the authors, in order
+     */
+    private void buildDifferences(List<AuthorFeatures> features)
+    {
+        int authorCount = features.size();
+        authors = new String[authorCount];
+        int textCount = 0;
+        for (int a = 0; a < authorCount; a++)
+        {
+            AuthorFeatures f = features.get(a);
+            authors[a] = f.name;
+            if (f.texts.length > 1)
+            {
+                textCount += f.texts.length;
+            }
+        }
+        labels = new int[textCount];
+        differences = new double[textCount * authorCount * STATISTIC_COUNT];
+        int t = 0;
+        for (int a = 0; a < authorCount; a++)
+        {
+            AuthorFeatures f = features.get(a);
+            for (int i = 0; i < f.texts.length; i++)
+            {
+                if (f.heldOut[i] == null)
+                {
+                    continue;
+                }
+                labels[t] = a;
+                for (int b = 0; b < authorCount; b++)
+                {
+                    double[] profile = b == a ? f.heldOut[i]
+                            : features.get(b).profile;
+                    int base = (t * authorCount + b) * STATISTIC_COUNT;
+                    for (int k = 0; k < STATISTIC_COUNT; k++)
+                    {
+                        differences[base + k] = Math.abs(f.texts[i][k]
+                                - profile[k]);
+                    }
+                }
+                t++;
+            }
+        }
+    }
+
+    /**
+     * returns the number of authors in the corpus.
+     * 
+     * @return the number of authors.
+     */
+    public int getAuthorCount()
+    {
+        return authors.length;
+    }
+
+    /**
+     * returns the number of texts that are held out when weights are scored.
+     * 
+     * @return the number of held-out texts.
+     */
+    public int getTextCount()
+    {
+        return labels.length;
+    }
+
+    /**
+     * Scores one set of weights.
+     * 
+     * @param weights
+     *            The weight of each statistic
+     * @return the number of correct texts and the margin of the weights.
+     */
+    public Result evaluate(double[] weights)
+    {
+        return evaluate(weights, 0);
+    }
+
+    /**
+     * Scores one candidate of a flat array of candidates. A text is correct
+     * if its own author is the one findClosest() would return, which on a
+     * tie is the author that comes first.
+     * 
+     * @param candidates
+     *            The candidates, STATISTIC_COUNT weights each
+     * @param offset
+     *            The position of the first weight of the candidate
+     * @return the number of correct texts and the margin of the candidate.
+     */
+    private Result evaluate(double[] candidates, int offset)
+    {
+        int authorCount = authors.length;
+        int correct = 0;
+        double marginSum = 0;
+        int base = 0;
+        for (int t = 0; t < labels.length; t++)
+        {
+            int label = labels[t];
+            double own = 0;
+            double other = Double.POSITIVE_INFINITY;
+            int closest = -1;
+            double smallest = Double.POSITIVE_INFINITY;
+            for (int a = 0; a < authorCount; a++)
+            {
+                double distance = 0;
+                for (int k = 0; k < STATISTIC_COUNT; k++)
+                {
+                    distance += differences[base + k]
+                            * candidates[offset + k];
+                }
+                base += STATISTIC_COUNT;
+                if (closest < 0 || distance < smallest)
+                {
+                    smallest = distance;
+                    closest = a;
+                }
+                if (a == label)
+                {
+                    own = distance;
+                }
+                else if (distance < other)
+                {
+                    other = distance;
+                }
+            }
+            if (closest == label)
+            {
+                correct++;
+            }
+            if (own + other > 0)
+            {
+                marginSum += (other - own) / (own + other);
+            }
+        }
+        double margin = labels.length == 0 ? 0 : marginSum / labels.length;
+        return new Result(Arrays.copyOfRange(candidates, offset, offset
+                + STATISTIC_COUNT), correct, labels.length, margin);
+    }
+
+    /**
+     * Scores every candidate and returns the best one. The candidates are
+     * cut into slices that are scored in parallel. Of equally good
+     * candidates the one that comes first is returned, so the answer does
+     * not depend on the number of threads.
+     * 
+     * @param candidates
+     *            The candidates, STATISTIC_COUNT weights each, one after
+     *            another
+     * @param executor
+     *            The executor the slices are scored on. It is not shut down
+     *            by this class.
+     * @param threads
+     *            The number of threads of the executor
+     * @return the best candidate and its score.
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting for a slice.
+     */
+    public Result search(final double[] candidates, ExecutorService executor,
+            int threads) throws InterruptedException
+    {
+        int count = candidates.length / STATISTIC_COUNT;
+        if (count == 0)
+        {
+            throw new IllegalArgumentException("no candidates to search");
+        }
+        int slices = Math.min(count, Math.max(1, threads) * SLICES_PER_THREAD);
+        List<Future<Result>> futures = new ArrayList<Future<Result>>();
+        for (int s = 0; s < slices; s++)
+        {
+            final int from = (int) ((long) count * s / slices);
+            final int to = (int) ((long) count * (s + 1) / slices);
+            futures.add(executor.submit(new Callable<Result>()
+            {
+                public Result call()
+                {
+                    return searchSlice(candidates, from, to);
+                }
+            }));
+        }
+        Result best = null;
+        try
+        {
+            for (Future<Result> f : futures)
+            {
+                Result r = f.get();
+                if (best == null || r.isBetterThan(best))
+                {
+                    best = r;
+                }
+            }
+        }
+        catch (ExecutionException e)
+        {
+            throw new RuntimeException(e.getCause());
+        }
+        finally
+        {
+            for (Future<Result> f : futures)
+            {
+                f.cancel(true);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Scores a slice of the candidates on the calling thread.
+     * 
+     * @param candidates
+     *            The candidates, STATISTIC_COUNT weights each
+     * @param from
+     *            The index of the first candidate of the slice
+     * @param to
+     *            The index just after the last candidate of the slice
+     * @return the best candidate of the slice, the first one on a tie.
+     */
+    private Result searchSlice(double[] candidates, int from, int to)
+    {
+        Result best = null;
+        for (int c = from; c < to; c++)
+        {
+            Result r = evaluate(candidates, c * STATISTIC_COUNT);
+            if (best == null || r.isBetterThan(best))
+            {
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Creates every combination of factors of a set of weights. With f
+     * factors, there are f^STATISTIC_COUNT candidates.
+     * 
+     * @param base
+     *            The weights the factors are applied to
+     * @param factors
+     *            The factors tried for each weight
+     * @return the candidates, STATISTIC_COUNT weights each.
+     */
+    public static double[] grid(double[] base, double[] factors)
+    {
+        int count = 1;
+        for (int k = 0; k < STATISTIC_COUNT; k++)
+        {
+            count *= factors.length;
+        }
+        double[] candidates = new double[count * STATISTIC_COUNT];
+        for (int c = 0; c < count; c++)
+        {
+            int rest = c;
+            for (int k = 0; k < STATISTIC_COUNT; k++)
+            {
+                candidates[c * STATISTIC_COUNT + k] = base[k]
+                        * factors[rest % factors.length];
+                rest /= factors.length;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Creates random candidates around a set of weights. The first candidate
+     * is the set of weights itself, so a search never returns anything worse.
+     * 
+     * @param base
+     *            The weights the candidates are spread around
+     * @param count
+     *            The number of candidates
+     * @param seed
+     *            The seed of the random numbers, so a search can be repeated
+     * @return the candidates, STATISTIC_COUNT weights each.
+     */
+    public static double[] random(double[] base, int count, long seed)
+    {
+        Random random = new Random(seed);
+        double range = Math.log(RANDOM_RANGE);
+        double[] candidates = new double[count * STATISTIC_COUNT];
+        for (int c = 0; c < count; c++)
+        {
+            for (int k = 0; k < STATISTIC_COUNT; k++)
+            {
+                double factor = c == 0 ? 1 : Math.exp((random.nextDouble()
+                        * 2 - 1) * range);
+                candidates[c * STATISTIC_COUNT + k] = base[k] * factor;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Tunes the weights on a corpus from the command line, and prints the
+     * score of the default weights and the best weights found.
+     * 
+     * @param args
+     *            the corpus directory, optionally "grid" or "random", the
+     *            number of random candidates, and the number of threads
+     * @throws IOException
+     *             if a text cannot be read
+     * @throws InterruptedException
+     *             if the search is interrupted
+     */
+    public static void main(String[] args) throws IOException,
+            InterruptedException
+    {
+        if (args.length < 1)
+        {
+            System.err.println("usage: WeightTuner <corpus> [grid|random] "
+                    + "[candidates] [threads]");
+            System.exit(1);
+        }
+        boolean useGrid = args.length > 1 && args[1].equals("grid");
+        int count = DEFAULT_CANDIDATES;
+        if (args.length > 2)
+        {
+            count = Integer.parseInt(args[2]);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length > 3)
+        {
+            threads = Integer.parseInt(args[3]);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            long start = System.nanoTime();
+            WeightTuner tuner = new WeightTuner(new File(args[0]), executor);
+            long analyzed = System.nanoTime();
+            System.out.println("Analyzed " + tuner.getTextCount()
+                    + " held-out texts of " + tuner.getAuthorCount()
+                    + " authors in " + (analyzed - start) / 1000000 + " ms");
+            double[] defaults = FindAuthor.defaultWeights();
+            System.out.println("Default weights: "
+                    + tuner.evaluate(defaults));
+            double[] candidates = useGrid ? grid(defaults, DEFAULT_GRID)
+                    : random(defaults, count, 1);
+            Result best = tuner.search(candidates, executor, threads);
+            long searched = System.nanoTime();
+            System.out.println("Searched " + candidates.length
+                    / STATISTIC_COUNT + " candidates in " + (searched
+                    - analyzed) / 1000000 + " ms");
+            System.out.println("Best weights: " + best);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The WindowClassifier looks for changes of author inside one long document.
+ * A window of a fixed number of sentences slides over the document, and each
+ * window is labelled with its nearest author profile and the margin to the
+ * next author. The statistics of the windows come from a RangeIndex, so
+ * sliding the window costs only the words that enter and leave it, instead
+ * of a new Document and DocumentStatistics for every window.
+ * 
+ * The type-token and hapax legomana ratios fall as a text gets longer, so a
+ * short window looks richer than the whole books the profiles were built
+ * from. Windows of a few hundred sentences find where the author changes
+ * more reliably than they name the author of each part.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class WindowClassifier
+{
+    /**
+     * The number of sentences in a window from the command line.
+     */
+    public static final int DEFAULT_WINDOW = 200;
+
+    /**
+     * One window of the document, and the author it is closest to.
+     */
+    public static final class Window
+    {
+        private int start;
+        private int end;
+        private RankedAuthor author;
+
+        /**
+         * Constructor for the Window class.
+         * 
+         * @param start
+         *            The index of the first sentence of the window
+         * @param end
+         *            The index just after the last sentence of the window
+         * @param author
+         *            The closest author, with the margin to the next one
+         */
+        private Window(int start, int end, RankedAuthor author)
+        {
+            this.start = start;
+            this.end = end;
+            this.author = author;
+        }
+
+        /**
+         * returns the index of the first sentence of the window.
+         * 
+         * @return the first sentence.
+         */
+        public int getStart()
+        {
+            return start;
+        }
+
+        /**
+         * returns the index just after the last sentence of the window.
+         * 
+         * @return the end of the window.
+         */
+        public int getEnd()
+        {
+            return end;
+        }
+
+        /**
+         * returns the author closest to the window.
+         * 
+         * @return the closest author, with its distance and margin.
+         */
+        public RankedAuthor getAuthor()
+        {
+            return author;
+        }
+
+        /**
+         * Overrides java.lang.Object.toString to print the sentences of the
+         * window and its author.
+         */
+        public String toString()
+        {
+            return "sentences " + start + "-" + end + ": " + author.getName()
+                    + " (distance " + author.getDistance() + ", margin "
+                    + author.getMargin() + ")";
+        }
+    }
+
+    private List<AuthorProfile> profiles;
+    private double[] weights;
+
+    /**
+     * Constructor for the WindowClassifier class.
+     * 
+     * @param profiles
+     *            The author profiles the windows are compared to
+     * @param weights
+     *            The weight of each statistic
+     */
+    public WindowClassifier(List<AuthorProfile> profiles, double[] weights)
+    {
+        if (profiles.isEmpty())
+        {
+            throw new IllegalArgumentException("no profiles to compare to");
+        }
+        this.profiles = new ArrayList<AuthorProfile>(profiles);
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Labels every window of a document with its closest author. Windows
+     * start every step sentences. The last window is moved back to end at
+     * the last sentence, so the end of the document is always covered; a
+     * document shorter than one window is a single window.
+     * 
+     * @param index
+     *            The index of the document
+     * @param window
+     *            The number of sentences in a window
+     * @param step
+     *            The number of sentences between the starts of two windows
+     * @return a List of the windows, in the order of the document.
+     */
+    public List<Window> classify(RangeIndex index, int window, int step)
+    {
+        if (window < 1 || step < 1)
+        {
+            throw new IllegalArgumentException("window and step must be at "
+                    + "least 1");
+        }
+        int sentences = index.getSentenceCount();
+        List<Window> windows = new ArrayList<Window>();
+        if (sentences == 0)
+        {
+            return windows;
+        }
+        int start = 0;
+        while (true)
+        {
+            int end = Math.min(sentences, start + window);
+            start = Math.max(0, end - window);
+            double[] stats = index.getStatistics(start, end);
+            windows.add(new Window(start, end, FindAuthor.rank(stats,
+                    profiles, weights, 1).get(0)));
+            if (end == sentences)
+            {
+                return windows;
+            }
+            start += step;
+        }
+    }
+
+    /**
+     * Joins neighbouring windows with the same author into segments, which
+     * are the stretches of the document most likely written by one author.
+     * Overlapping windows with different authors are split halfway through
+     * their overlap.
+     * 
+     * @param windows
+     *            The windows of a document, in order
+     * @return a List of the segments, each a Window spanning the windows it
+     *         was joined from and holding the author of its first window.
+     */
+    public static List<Window> segments(List<Window> windows)
+    {
+        List<Window> segments = new ArrayList<Window>();
+        int first = 0;
+        int start = 0;
+        for (int i = 0; i < windows.size(); i++)
+        {
+            Window w = windows.get(i);
+            int cut = w.end;
+            if (i + 1 < windows.size())
+            {
+                Window next = windows.get(i + 1);
+                if (next.author.getName().equals(w.author.getName()))
+                {
+                    continue;
+                }
+                cut = Math.max(next.start, Math.min(w.end, (next.start
+                        + w.end) / 2));
+            }
+            segments.add(new Window(start, cut, windows.get(first).author));
+            first = i + 1;
+            start = cut;
+        }
+        return segments;
+    }
+
+    /**
+     * Segments a document from the command line, printing each window and
+     * then the segments.
+     * 
+     * @param args
+     *            the document, the directory of .stats files, and
+     *            optionally the window and step in sentences
+     * @throws IOException
+     *             if the document or the profiles cannot be read
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("usage: WindowClassifier <document> "
+                    + "<profiles> [window] [step]");
+            System.exit(1);
+        }
+        int window = DEFAULT_WINDOW;
+        if (args.length > 2)
+        {
+            window = Integer.parseInt(args[2]);
+        }
+        int step = Math.max(1, window / 4);
+        if (args.length > 3)
+        {
+            step = Integer.parseInt(args[3]);
+        }
+        List<AuthorProfile> profiles = new ProfileRegistry(Paths.get(args[1]))
+                .getProfiles();
+        Reader reader = FindAuthor.openDocument(args[0]);
+        RangeIndex index;
+        try
+        {
+            index = new RangeIndex(new CompactDocument(new Scanner(reader)));
+        }
+        finally
+        {
+            reader.close();
+        }
+        WindowClassifier classifier = new WindowClassifier(profiles,
+                FindAuthor.defaultWeights());
+        List<Window> windows = classifier.classify(index, window, step);
+        for (Window w : windows)
+        {
+            System.out.println(w);
+        }
+        System.out.println();
+        for (Window s : segments(windows))
+        {
+            System.out.println(s);
+        }
+    }
+}
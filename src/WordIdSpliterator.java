@@ -0,0 +1,191 @@
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * A WordIdSpliterator feeds the words of a text to an IntStream as int ids,
+ * so that streams over words need no boxing and no String comparisons. It
+ * splits the text the same way as the TokenSpliterator it wraps, and every
+ * part looks its words up in one shared Dictionary, so equal words get equal
+ * ids however the text was split. When the text is split, which word gets
+ * which id depends on the order the parts are scanned in.
+ * 
+ * @author Aashish Jain
+ * 
+ * @version October 18, 2026
+ *
+ */
+public class WordIdSpliterator implements Spliterator.OfInt
+{
+    /**
+     * A thread safe mapping between words and dense int ids, starting at 0.
+     */
+    public static final class Dictionary
+    {
+        private ConcurrentHashMap<String, Integer> ids;
+        private ArrayList<String> words;
+
+        /**
+         * Constructor for an empty Dictionary.
+         */
+        public Dictionary()
+        {
+            ids = new ConcurrentHashMap<String, Integer>();
+            words = new ArrayList<String>();
+        }
+
+        /**
+         * Finds the id of a word, giving it the next id if it is new.
+         * 
+         * @param word
+         *            The word to look up
+         * @return the id of the word.
+         */
+        public int getId(String word)
+        {
+            Integer id = ids.get(word);
+            if (id != null)
+            {
+                return id;
+            }
+            synchronized (this)
+            {
+                id = ids.get(word);
+                if (id == null)
+                {
+                    id = words.size();
+                    words.add(word);
+                    ids.put(word, id);
+                }
+                return id;
+            }
+        }
+
+        /**
+         * Finds the word with an id.
+         * 
+         * @param id
+         *            The id of the word
+         * @return the word.
+         */
+        public synchronized String getWord(int id)
+        {
+            return words.get(id);
+        }
+
+        /**
+         * returns the number of different words seen.
+         * 
+         * @return the number of ids given out.
+         */
+        public synchronized int size()
+        {
+            return words.size();
+        }
+    }
+
+    private Spliterator<Token> tokens;
+    private Dictionary dictionary;
+
+    /**
+     * Constructor for the WordIdSpliterator class.
+     * 
+     * @param tokens
+     *            The tokens whose words are given ids
+     * @param dictionary
+     *            The dictionary shared by every part of the text
+     */
+    public WordIdSpliterator(Spliterator<Token> tokens, Dictionary dictionary)
+    {
+        this.tokens = tokens;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Passes the id of the next word to an action. Tokens that are not words
+     * are skipped.
+     * 
+     * @param action
+     *            The action to receive the id
+     * @return true if there was a word, or false if the text is finished.
+     */
+    public boolean tryAdvance(final IntConsumer action)
+    {
+        final boolean[] found = new boolean[1];
+        Consumer<Token> toId = new Consumer<Token>()
+        {
+            public void accept(Token t)
+            {
+                if (t.getType() == Scanner.TOKEN_TYPE.WORD)
+                {
+                    action.accept(dictionary.getId(t.getStr()));
+                    found[0] = true;
+                }
+            }
+        };
+        while (!found[0] && tokens.tryAdvance(toId))
+        {
+        }
+        return found[0];
+    }
+
+    /**
+     * Passes the id of every remaining word to an action.
+     * 
+     * @param action
+     *            The action to receive the ids
+     */
+    public void forEachRemaining(final IntConsumer action)
+    {
+        tokens.forEachRemaining(new Consumer<Token>()
+        {
+            public void accept(Token t)
+            {
+                if (t.getType() == Scanner.TOKEN_TYPE.WORD)
+                {
+                    action.accept(dictionary.getId(t.getStr()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Splits off the first part of the text, sharing the dictionary.
+     * 
+     * @return a spliterator over the words of the first part, or null if the
+     *         text is not split.
+     */
+    public Spliterator.OfInt trySplit()
+    {
+        Spliterator<Token> first = tokens.trySplit();
+        if (first == null)
+        {
+            return null;
+        }
+        return new WordIdSpliterator(first, dictionary);
+    }
+
+    /**
+     * Estimates the number of words left, which is at most the number of
+     * tokens left.
+     * 
+     * @return the estimated number of words.
+     */
+    public long estimateSize()
+    {
+        return tokens.estimateSize();
+    }
+
+    /**
+     * Describes the spliterator: its ids are in order and the text cannot
+     * change.
+     * 
+     * @return the characteristics of the spliterator.
+     */
+    public int characteristics()
+    {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}